@@ -10,12 +10,23 @@ public class AccountsConstants {
     public static final String  ADDRESS = "123 Main Street, New York";
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Account created successfully";
+    public static final String  STATUS_202 = "202";
+    public static final String  MESSAGE_202_IMPORT = "Import started with id ";
     public static final String  STATUS_200 = "200";
     public static final String  MESSAGE_200 = "Request processed successfully";
+    public static final String  MESSAGE_200_DELETED = "Customers deleted: ";
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_500= "An error ocurred. Please try again or contact Dev team";
     public static final String  STATUS_500 = "500";
     public static final String MESSAGE_400="400";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_400_DUPLICATE_IN_REQUEST = "Mobile number is repeated in the request";
+    public static final String  MESSAGE_400_NULL_ROW = "Customer must not be null";
+    public static final int  MAX_BATCH_SIZE = 1000;
+    public static final int  MAX_PAGE_SIZE = 1000;
+    public static final String  ACCOUNTS_CACHE = "accounts";
+    public static final String  TEXT_CSV_VALUE = "text/csv";
+    public static final String  APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 }
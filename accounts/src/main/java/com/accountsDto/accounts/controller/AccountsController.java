@@ -2,10 +2,19 @@ package com.accountsDto.accounts.controller;
 
 import com.accountsDto.accounts.constants.AccountsConstants;
 import com.accountsDto.accounts.dto.AccountsContactInfoDto;
+import com.accountsDto.accounts.dto.AccountsDto;
+import com.accountsDto.accounts.dto.AccountsPageDto;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
+import com.accountsDto.accounts.dto.CustomerDetailsDto;
 import com.accountsDto.accounts.dto.CustomerDto;
 import com.accountsDto.accounts.dto.ErrorResponseDto;
 import com.accountsDto.accounts.dto.ResponseDto;
+import com.accountsDto.accounts.importer.CustomerImportJob;
 import com.accountsDto.accounts.service.IAccountsService;
+import com.accountsDto.accounts.service.ICustomerDetailsService;
+import com.accountsDto.accounts.service.ICustomerImportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,32 +22,55 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 @Tag(
         name = "CRUD REST APIs for Accounts in bank",
         description = "Crud Rest Apis in bank "
 )
 @RestController
-@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+        AccountsConstants.APPLICATION_SMILE_VALUE})
 @Validated
 public class AccountsController {
 
     private IAccountsService iAccountsService;
 
+    private ICustomerImportService iCustomerImportService;
+
+    private ICustomerDetailsService iCustomerDetailsService;
+
     @Autowired
     private AccountsContactInfoDto accountsContactInfoDto;
 
-    public AccountsController(IAccountsService iAccountsService){
+    public AccountsController(IAccountsService iAccountsService, ICustomerImportService iCustomerImportService,
+                              ICustomerDetailsService iCustomerDetailsService){
         this.iAccountsService=iAccountsService;
+        this.iCustomerImportService=iCustomerImportService;
+        this.iCustomerDetailsService=iCustomerDetailsService;
     }
     @Value("${build.version}")
     private String buildVersion;
@@ -46,6 +78,9 @@ public class AccountsController {
     @Autowired
     private Environment environment;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
             summary = "Create Account REST API",
             description = "REST API to create new Customer &  Account"
@@ -72,6 +107,69 @@ public class AccountsController {
                 .body(new ResponseDto(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
     }
 
+    @Operation(
+            summary = "Create Accounts in Batch REST API",
+            description = "REST API to create up to 1000 new Customers &  Accounts in one call, reporting the result of every row"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<CreateAccountResultDto>> createAccounts(@RequestBody
+                                                                       @Size(min = 1, max = AccountsConstants.MAX_BATCH_SIZE, message = "Batch must contain between 1 and 1000 customers")
+                                                                       List<CustomerDto> customerDtos) {
+        List<CreateAccountResultDto> results = iAccountsService.createAccounts(customerDtos);
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
+    @Operation(
+            summary = "Import Customers REST API",
+            description = "REST API to bulk load a name,email,mobileNumber CSV file from the import directory; progress is at /actuator/imports"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "202",
+                    description = "HTTP Status ACCEPTED"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/import")
+    public ResponseEntity<ResponseDto> importCustomers(@RequestParam String fileName) {
+        CustomerImportJob job = iCustomerImportService.startImport(fileName);
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(new ResponseDto(AccountsConstants.STATUS_202, AccountsConstants.MESSAGE_202_IMPORT + job.getId()));
+    }
+
     @Operation(
             summary = "Fetch Account Details REST API",
             description = "REST API to fetch Customer &  Account details based on a mobile number"
@@ -81,6 +179,10 @@ public class AccountsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified; the If-None-Match ETag is still current"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -92,9 +194,84 @@ public class AccountsController {
     )
     @GetMapping("/fetch")
     public ResponseEntity<CustomerDto> fetchAccountDetails(@RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits")
-                                                           String mobileNumber) {
+                                                           String mobileNumber,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            String version = iAccountsService.fetchAccountVersion(mobileNumber);
+            if (matchesETag(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
+        }
         CustomerDto customerDto = iAccountsService.fetchAccount(mobileNumber);
-        return ResponseEntity.status(HttpStatus.OK).body(customerDto);
+        return withETag(ResponseEntity.status(HttpStatus.OK), customerDto).body(customerDto);
+    }
+
+    @Operation(
+            summary = "Fetch Customer Details REST API",
+            description = "REST API to fetch Customer, Account, Cards and Loans details based on a mobile number in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK; services that did not answer in time are listed in unavailableServices"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/fetchCustomerDetails")
+    public ResponseEntity<CustomerDetailsDto> fetchCustomerDetails(@RequestParam @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits")
+                                                                   String mobileNumber) {
+        CustomerDetailsDto customerDetailsDto = iCustomerDetailsService.fetchCustomerDetails(mobileNumber);
+        return ResponseEntity.status(HttpStatus.OK).body(customerDetailsDto);
+    }
+
+    @Operation(
+            summary = "List Accounts REST API",
+            description = "REST API to browse accounts by account type and branch address, a page at a time in account number order; pass nextAfter of a page as after to get the next one"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/list")
+    public ResponseEntity<AccountsPageDto> listAccounts(@RequestParam(required = false) String accountType,
+                                                        @RequestParam(required = false) String branchAddress,
+                                                        @RequestParam(required = false)
+                                                        @Min(value = 0, message = "After must not be negative")
+                                                        Long after,
+                                                        @RequestParam(defaultValue = "50")
+                                                        @Min(value = 1, message = "Size must be between 1 and 1000")
+                                                        @Max(value = AccountsConstants.MAX_PAGE_SIZE, message = "Size must be between 1 and 1000")
+                                                        int size) {
+        AccountsPageDto accountsPageDto = iAccountsService.listAccounts(accountType, branchAddress, after, size);
+        return ResponseEntity.status(HttpStatus.OK).body(accountsPageDto);
     }
 
     @Operation(
@@ -106,6 +283,20 @@ public class AccountsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "412",
+                    description = "HTTP Status Precondition Failed",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "417",
                     description = "Expectation Failed"
@@ -120,11 +311,18 @@ public class AccountsController {
     }
     )
     @PutMapping("/update")
-    public ResponseEntity<ResponseDto> updateAccountDetails(@Valid @RequestBody CustomerDto customerDto) {
+    public ResponseEntity<ResponseDto> updateAccountDetails(@Valid @RequestBody CustomerDto customerDto,
+                                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch != null && !ifMatch.isBlank() && !"*".equals(ifMatch.trim())) {
+            String version = parseETag(ifMatch);
+            if (version == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "If-Match must be an entity tag such as \"3.1\"");
+            }
+            customerDto.setVersion(version);
+        }
         boolean isUpdated = iAccountsService.updateAccount(customerDto);
         if (isUpdated) {
-            return ResponseEntity
-                    .status(HttpStatus.OK)
+            return withETag(ResponseEntity.status(HttpStatus.OK), customerDto)
                     .body(new ResponseDto(AccountsConstants.STATUS_200, AccountsConstants.MESSAGE_200));
         } else {
             return ResponseEntity
@@ -171,6 +369,137 @@ public class AccountsController {
         }
     }
 
+    @Operation(
+            summary = "Delete Accounts & Customers in Batch REST API",
+            description = "REST API to delete up to 1000 Customers &  Accounts based on their mobile numbers"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @DeleteMapping("/delete/batch")
+    public ResponseEntity<ResponseDto> deleteAccounts(@RequestBody
+                                                      @Size(min = 1, max = AccountsConstants.MAX_BATCH_SIZE, message = "Batch must contain between 1 and 1000 mobile numbers")
+                                                      List<@Pattern(regexp = "[0-9]{10}", message = "Mobile number must be 10 digits") String> mobileNumbers) {
+        int deleted = iAccountsService.deleteAccounts(mobileNumbers);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(AccountsConstants.STATUS_200, AccountsConstants.MESSAGE_200_DELETED + deleted));
+    }
+
+    @Operation(
+            summary = "Export Accounts REST API",
+            description = "REST API to stream every Customer &  Account as NDJSON (default) or CSV"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(path = "/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, AccountsConstants.TEXT_CSV_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam(defaultValue = "ndjson")
+                                                                @Pattern(regexp = "ndjson|csv", message = "Format must be ndjson or csv")
+                                                                String format) {
+        boolean csv = "csv".equals(format);
+        StreamingResponseBody body = csv ? this::writeCsv : this::writeNdjson;
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .contentType(csv ? MediaType.parseMediaType(AccountsConstants.TEXT_CSV_VALUE) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"accounts." + format + "\"")
+                .body(body);
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, CustomerDto customerDto) {
+        return customerDto != null && customerDto.getVersion() != null ? builder.eTag(customerDto.getVersion()) : builder;
+    }
+
+    // If-None-Match lists one or more entity-tags, compared weakly, or * for any current representation
+    private static boolean matchesETag(String header, String version) {
+        for (String etag : header.split(",")) {
+            if ("*".equals(etag.trim()) || version.equals(parseETag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // an entity-tag is an opaque value in double quotes, W/ in front when weak (RFC 9110 8.8.3); null for anything else
+    private static String parseETag(String etag) {
+        String candidate = etag.trim();
+        if (candidate.startsWith("W/")) {
+            candidate = candidate.substring(2);
+        }
+        if (candidate.length() < 2 || !candidate.startsWith("\"") || !candidate.endsWith("\"")) {
+            return null;
+        }
+        String opaque = candidate.substring(1, candidate.length() - 1);
+        return opaque.indexOf('"') < 0 ? opaque : null;
+    }
+
+    private void writeNdjson(OutputStream outputStream) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            iAccountsService.exportAccounts(customerDto -> {
+                try {
+                    objectMapper.writeValue(generator, customerDto);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void writeCsv(OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write("name,email,mobileNumber,accountNumber,accountType,branchAddress\n");
+        iAccountsService.exportAccounts(customerDto -> {
+            AccountsDto accountsDto = customerDto.getAccountsDto();
+            try {
+                writer.write(csvField(customerDto.getName()) + ',' + csvField(customerDto.getEmail()) + ','
+                        + csvField(customerDto.getMobileNumber()) + ',' + csvField(accountsDto.getAccountNumber()) + ','
+                        + csvField(accountsDto.getAccountType()) + ',' + csvField(accountsDto.getBranchAddress()) + '\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
     @Operation(
             summary = "Get Build Information",
             description = "Get build information that is delayed into accounts microservice"
@@ -0,0 +1,27 @@
+package com.accountsDto.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+@Schema(
+        name = "AccountSummary",
+        description = "Schema to hold one account of a listing together with its owner"
+)
+@Data
+public class AccountSummaryDto {
+
+    @Schema(description = "Account Number of Eazy Bank account", example = "1900000050")
+    private Long accountNumber;
+
+    @Schema(description = "Account type of Eazy Bank account", example = "Savings")
+    private String accountType;
+
+    @Schema(description = "Eazy Bank branch address", example = "123 NewYork")
+    private String branchAddress;
+
+    @Schema(description = "Name of the customer", example = "Jordi D")
+    private String name;
+
+    @Schema(description = "Mobile Number of the customer", example = "1234567890")
+    private String mobileNumber;
+}
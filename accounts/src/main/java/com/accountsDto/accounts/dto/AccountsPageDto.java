@@ -0,0 +1,21 @@
+package com.accountsDto.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(
+        name = "AccountsPage",
+        description = "Schema to hold one page of accounts ordered by account number"
+)
+@Data@AllArgsConstructor
+public class AccountsPageDto {
+
+    @Schema(description = "Accounts of this page, by ascending account number")
+    private List<AccountSummaryDto> accounts;
+
+    @Schema(description = "Value to pass as after to read the next page; null on the last page", example = "1900000099")
+    private Long nextAfter;
+}
@@ -0,0 +1,28 @@
+package com.accountsDto.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Schema(
+        name = "CreateAccountResult",
+        description = "Schema to hold the outcome of one row of a batch account creation"
+)
+@Data@AllArgsConstructor
+public class CreateAccountResultDto {
+
+    @Schema(
+            description = "Mobile Number of the customer", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Status code of this row"
+    )
+    private String statusCode;
+
+    @Schema(
+            description = "Status message of this row"
+    )
+    private String statusMsg;
+}
@@ -0,0 +1,37 @@
+package com.accountsDto.accounts.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Schema(
+        name = "CustomerDetails",
+        description = "Schema to hold Customer, Account, Cards and Loans information"
+)
+public class CustomerDetailsDto {
+
+    @Schema(description = "Name of the customer", example = "Jordi D")
+    private String name;
+
+    @Schema(description = "Email address of the customer", example = "jordi@bank.com")
+    private String email;
+
+    @Schema(description = "Mobile Number of the customer", example = "1234567890")
+    private String mobileNumber;
+
+    @Schema(description = "Account details of the Customer")
+    private AccountsDto accountsDto;
+
+    @Schema(description = "Card details of the Customer; null when the customer has no card or cards did not answer")
+    private CardsDto cardsDto;
+
+    @Schema(description = "Loan details of the Customer; null when the customer has no loan or loans did not answer")
+    private LoansDto loansDto;
+
+    @Schema(description = "Services that failed or timed out, whose details are missing from this response", example = "[\"loans\"]")
+    private List<String> unavailableServices = new ArrayList<>();
+
+}
@@ -1,6 +1,7 @@
 package com.accountsDto.accounts.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotEmpty;
@@ -37,4 +38,12 @@ public class CustomerDto {
     private String mobileNumber;
 
     private AccountsDto accountsDto;
+
+    /*
+     * Version of the customer and account rows this data was read from. Travels in the ETag / If-Match headers,
+     * never in the body.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String version;
 }
@@ -2,16 +2,39 @@ package com.accountsDto.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@DynamicUpdate
+@Table(name = "accounts", indexes = {
+        @Index(name = "ix_accounts_customer_id", columnList = "customer_id"),
+        @Index(name = "ix_accounts_type_branch_number", columnList = "account_type, branch_address, account_number"),
+        @Index(name = "ix_accounts_type_number", columnList = "account_type, account_number"),
+        @Index(name = "ix_accounts_branch_number", columnList = "branch_address, account_number")
+})
 @Getter@Setter@ToString@AllArgsConstructor@NoArgsConstructor
 public class Accounts extends BaseEntity{
 
     @Column(name="customer_id")
     private Long customerId;
 
+    /*
+     * Account numbers are handed out in blocks of 50 from account_number_seq, one block shared by every thread
+     * (pooled-lo), so only one create in fifty pays a sequence round trip however many threads, virtual or not, the
+     * creates run on, and Hibernate can persist without the select-before-insert an assigned id forces on save().
+     */
     @Column(name="account_number")
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_number_seq")
+    @GenericGenerator(name = "account_number_seq", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "account_number_seq"),
+            @Parameter(name = SequenceStyleGenerator.INITIAL_PARAM, value = "1900000000"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     private Long accountNumber;
 
     @Column(name="account_type")
@@ -3,6 +3,7 @@ package com.accountsDto.accounts.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -32,6 +33,9 @@ public class BaseEntity {
 
     @LastModifiedBy
     private String updatedBy;
+
+    @Version
+    private Long version;
 /*
     @LastModifiedDate
     @Column(updatable = false)
@@ -2,15 +2,26 @@ package com.accountsDto.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity
+@DynamicUpdate
+@Table(name = "customer", indexes = {
+        @Index(name = "ux_customer_mobile_number", columnList = "mobile_number", unique = true)
+})
 @Getter@Setter@ToString@AllArgsConstructor@NoArgsConstructor
 public class Customer extends BaseEntity{
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO,generator = "native")
-    @GenericGenerator(name="native", strategy = "native")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @GenericGenerator(name = "customer_seq", type = SequenceStyleGenerator.class, parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "customer_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled-lo")
+    })
     @Column(name="customer_id")
     private Long customerId;
 
@@ -18,5 +29,6 @@ public class Customer extends BaseEntity{
 
     private String email;
 
+    @Column(name="mobile_number", nullable = false)
     private String mobileNumber;
 }
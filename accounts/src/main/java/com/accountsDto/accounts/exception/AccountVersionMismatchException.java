@@ -0,0 +1,12 @@
+package com.accountsDto.accounts.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value= HttpStatus.PRECONDITION_FAILED)
+public class AccountVersionMismatchException extends RuntimeException{
+
+    public AccountVersionMismatchException(String expectedVersion, String currentVersion){
+        super(String.format("Account was modified by another request: If-Match version '%s' but current version is '%s'", expectedVersion, currentVersion));
+    }
+}
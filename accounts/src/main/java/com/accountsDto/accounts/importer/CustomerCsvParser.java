@@ -0,0 +1,113 @@
+package com.accountsDto.accounts.importer;
+
+import com.accountsDto.accounts.dto.CustomerDto;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/*
+ * Reads name,email,mobileNumber rows straight out of a (memory-mapped) byte buffer. Lines are never materialized:
+ * each field is decoded from its bytes once, and columns after the third are skipped without decoding, so files
+ * produced by /api/export?format=csv can be imported as they are. Quoted fields follow RFC 4180.
+ */
+public class CustomerCsvParser {
+
+    private static final int END_OF_INPUT = -1;
+
+    private final ByteBuffer buffer;
+    private byte[] scratch = new byte[128];
+    private int terminator;
+
+    public CustomerCsvParser(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return the next row, or null once the buffer is exhausted. Blank lines are skipped.
+     */
+    public CustomerDto next() {
+        while (buffer.hasRemaining()) {
+            CustomerDto customerDto = new CustomerDto();
+            int column = 0;
+            do {
+                String value = readField(column < 3);
+                switch (column) {
+                    case 0 -> customerDto.setName(value);
+                    case 1 -> customerDto.setEmail(value);
+                    case 2 -> customerDto.setMobileNumber(value);
+                    default -> { }
+                }
+                column++;
+            } while (terminator == ',');
+            if (column > 1 || !customerDto.getName().isEmpty()) {
+                return customerDto;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the position of the next unread byte, for progress reporting
+     */
+    public int position() {
+        return buffer.position();
+    }
+
+    private String readField(boolean materialize) {
+        int length = 0;
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == '"') {
+            buffer.get();
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get();
+                if (b == '"') {
+                    if (!buffer.hasRemaining() || buffer.get(buffer.position()) != '"') {
+                        break;
+                    }
+                    buffer.get();
+                }
+                if (materialize) {
+                    length = append(length, b);
+                }
+            }
+            readTerminator();
+        } else {
+            while (buffer.hasRemaining()) {
+                byte b = buffer.get(buffer.position());
+                if (b == ',' || b == '\n' || b == '\r') {
+                    break;
+                }
+                buffer.get();
+                if (materialize) {
+                    length = append(length, b);
+                }
+            }
+            readTerminator();
+        }
+        return materialize ? new String(scratch, 0, length, StandardCharsets.UTF_8) : null;
+    }
+
+    private void readTerminator() {
+        if (!buffer.hasRemaining()) {
+            terminator = END_OF_INPUT;
+            return;
+        }
+        byte b = buffer.get();
+        if (b == '\r') {
+            if (buffer.hasRemaining() && buffer.get(buffer.position()) == '\n') {
+                buffer.get();
+            }
+            terminator = '\n';
+        } else {
+            terminator = b;
+        }
+    }
+
+    private int append(int length, byte b) {
+        if (length == scratch.length) {
+            scratch = Arrays.copyOf(scratch, length * 2);
+        }
+        scratch[length] = b;
+        return length + 1;
+    }
+}
@@ -0,0 +1,33 @@
+package com.accountsDto.accounts.importer;
+
+import com.accountsDto.accounts.service.ICustomerImportService;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/*
+ * /actuator/imports lists every bulk import with its progress and throughput; /actuator/imports/{id} shows one.
+ */
+@Component
+@Endpoint(id = "imports")
+public class CustomerImportEndpoint {
+
+    private final ICustomerImportService iCustomerImportService;
+
+    public CustomerImportEndpoint(ICustomerImportService iCustomerImportService) {
+        this.iCustomerImportService = iCustomerImportService;
+    }
+
+    @ReadOperation
+    public Collection<CustomerImportJob> imports() {
+        return iCustomerImportService.getImports();
+    }
+
+    @ReadOperation
+    public CustomerImportJob importJob(@Selector String id) {
+        return iCustomerImportService.getImport(id);
+    }
+}
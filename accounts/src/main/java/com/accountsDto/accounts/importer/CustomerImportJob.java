@@ -0,0 +1,57 @@
+package com.accountsDto.accounts.importer;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Live progress of one bulk import, shared by its partition workers and read by the imports actuator endpoint.
+ */
+@Getter
+public class CustomerImportJob {
+
+    public enum Status { RUNNING, COMPLETED, FAILED }
+
+    private final String id;
+    private final String file;
+    private final long totalBytes;
+    private final int partitions;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final AtomicLong processedBytes = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsCreated = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private volatile LocalDateTime finishedAt;
+    private volatile Status status = Status.RUNNING;
+    private volatile String errorMessage;
+
+    public CustomerImportJob(String id, String file, long totalBytes, int partitions) {
+        this.id = id;
+        this.file = file;
+        this.totalBytes = totalBytes;
+        this.partitions = partitions;
+    }
+
+    public double getProgressPercent() {
+        return totalBytes == 0 ? 100.0 : processedBytes.get() * 100.0 / totalBytes;
+    }
+
+    public double getRowsPerSecond() {
+        LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+        long millis = Math.max(1, Duration.between(startedAt, end).toMillis());
+        return rowsRead.get() * 1000.0 / millis;
+    }
+
+    public void complete() {
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(Throwable cause) {
+        finishedAt = LocalDateTime.now();
+        errorMessage = cause.getMessage();
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,201 @@
+package com.accountsDto.accounts.index;
+
+import com.accountsDto.accounts.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/*
+ * Off-heap index from the mobile number, encoded as a long, to customerId, so a lookup by mobile number becomes a
+ * primary-key load. Built from the table once the application is ready and kept current after every commit that
+ * inserts, deletes or renumbers a customer; entries are only removed while they still point at the deleted customer,
+ * so a late removal can never drop a newer customer with the same number. A loaded row is checked against the mobile
+ * number, so a stale entry falls back to the query instead of returning the wrong customer.
+ *
+ * Until it is built, or for numbers that are not ten digits, lookups take the given fallback query. So do all lookups
+ * once the map is full (see OffHeapLongLongMap): an index missing some numbers would answer ABSENT for them, so it is
+ * left unbuilt, or dropped when a later insert does not fit, until the next start.
+ */
+@Component
+public class MobileNumberIndex {
+
+    public static final long ABSENT = OffHeapLongLongMap.NO_VALUE;
+    public static final long UNKNOWN = Long.MIN_VALUE + 1;
+
+    private final CustomerRepository customerRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    // changes hold the read side and publishing the built map the write side, so no change falls in between
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final Queue<Predicate<OffHeapLongLongMap>> pendingChanges = new ConcurrentLinkedQueue<>();
+    private volatile OffHeapLongLongMap index;
+    private volatile boolean building;
+
+    public MobileNumberIndex(CustomerRepository customerRepository, PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry) {
+        this.customerRepository = customerRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        Gauge.builder("mobile.index.entries", this, mobileNumberIndex -> mobileNumberIndex.index == null ? 0 : mobileNumberIndex.index.size())
+                .register(meterRegistry);
+        Gauge.builder("mobile.index.memory", this, mobileNumberIndex -> mobileNumberIndex.index == null ? 0 : mobileNumberIndex.index.memoryBytes())
+                .baseUnit("bytes").description("Off-heap memory of the mobile number index").register(meterRegistry);
+    }
+
+    /**
+     * @param byId - loads the row the index points to
+     * @param mobileNumberOf - mobile number of a loaded row
+     * @param byMobileNumber - the lookup to run when the index cannot answer
+     */
+    public <T> Optional<T> find(String mobileNumber, LongFunction<Optional<T>> byId, Function<T, String> mobileNumberOf,
+                                Function<String, Optional<T>> byMobileNumber) {
+        long id = idOf(mobileNumber);
+        if (id == ABSENT) {
+            return Optional.empty();
+        }
+        if (id != UNKNOWN) {
+            Optional<T> row = byId.apply(id).filter(loaded -> mobileNumber.equals(mobileNumberOf.apply(loaded)));
+            if (row.isPresent()) {
+                return row;
+            }
+        }
+        return byMobileNumber.apply(mobileNumber);
+    }
+
+    /**
+     * @param id - customerId of a customer being inserted or given this mobile number; indexed once the change commits
+     */
+    public void added(String mobileNumber, long id) {
+        long key = encode(mobileNumber);
+        if (key >= 0) {
+            afterCommit(() -> change(map -> map.put(key, id)));
+        }
+    }
+
+    /**
+     * @param id - customerId of the customer this transaction deleted or took the mobile number from
+     */
+    public void removed(String mobileNumber, long id) {
+        long key = encode(mobileNumber);
+        if (key >= 0) {
+            afterCommit(() -> change(map -> {
+                map.remove(key, id);
+                return true;
+            }));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        publishLock.writeLock().lock();
+        try {
+            building = true;
+            pendingChanges.clear();
+        } finally {
+            publishLock.writeLock().unlock();
+        }
+        OffHeapLongLongMap built = null;
+        try {
+            OffHeapLongLongMap loading = new OffHeapLongLongMap((int) Math.min(Integer.MAX_VALUE, customerRepository.count()));
+            Boolean complete = readOnlyTransaction.execute(status -> {
+                try (Stream<Object[]> entries = customerRepository.streamAllMobileNumberIds()) {
+                    return entries.allMatch(entry -> {
+                        long key = encode((String) entry[0]);
+                        return key < 0 || loading.put(key, (Long) entry[1]);
+                    });
+                }
+            });
+            if (Boolean.TRUE.equals(complete)) {
+                built = loading;
+            }
+        } finally {
+            publishLock.writeLock().lock();
+            try {
+                // a change the scan already saw is harmless to replay: puts are idempotent and removes check the id
+                for (Predicate<OffHeapLongLongMap> change = pendingChanges.poll(); change != null && built != null;
+                     change = pendingChanges.poll()) {
+                    if (!change.test(built)) {
+                        built = null;
+                    }
+                }
+                index = built;
+                pendingChanges.clear();
+                building = false;
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @return customerId, ABSENT if no customer has the number, or UNKNOWN if the index cannot tell
+     */
+    public long idOf(String mobileNumber) {
+        long key = encode(mobileNumber);
+        OffHeapLongLongMap current = index;
+        if (key < 0 || current == null || building) {
+            return UNKNOWN;
+        }
+        return current.get(key);
+    }
+
+    // a change returns false if the map could not take it
+    private void change(Predicate<OffHeapLongLongMap> change) {
+        publishLock.readLock().lock();
+        try {
+            OffHeapLongLongMap current = index;
+            if (building) {
+                pendingChanges.add(change);
+            } else if (current != null && !change.test(current)) {
+                index = null;
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * @return the ten digits as a number, or -1 for anything else
+     */
+    public static long encode(String mobileNumber) {
+        if (mobileNumber == null || mobileNumber.length() != 10) {
+            return -1;
+        }
+        long key = 0;
+        for (int i = 0; i < 10; i++) {
+            char digit = mobileNumber.charAt(i);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            key = key * 10 + (digit - '0');
+        }
+        return key;
+    }
+}
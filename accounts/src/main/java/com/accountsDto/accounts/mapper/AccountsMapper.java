@@ -1,7 +1,9 @@
 package com.accountsDto.accounts.mapper;
 
+import com.accountsDto.accounts.dto.AccountSummaryDto;
 import com.accountsDto.accounts.dto.AccountsDto;
 import com.accountsDto.accounts.entity.Accounts;
+import com.accountsDto.accounts.projection.AccountSummaryView;
 
 public class AccountsMapper {
 
@@ -18,4 +20,13 @@ public class AccountsMapper {
         accounts.setBranchAddress(accountsDto.getBranchAddress());
         return accounts;
     }
+
+    public static AccountSummaryDto mapToAccountSummaryDto(AccountSummaryView view, AccountSummaryDto accountSummaryDto) {
+        accountSummaryDto.setAccountNumber(view.accountNumber());
+        accountSummaryDto.setAccountType(view.accountType());
+        accountSummaryDto.setBranchAddress(view.branchAddress());
+        accountSummaryDto.setName(view.name());
+        accountSummaryDto.setMobileNumber(view.mobileNumber());
+        return accountSummaryDto;
+    }
 }
@@ -1,8 +1,12 @@
 package com.accountsDto.accounts.mapper;
 
 
+import com.accountsDto.accounts.dto.AccountsDto;
 import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.entity.Accounts;
 import com.accountsDto.accounts.entity.Customer;
+import com.accountsDto.accounts.projection.CustomerAccountsView;
+import com.accountsDto.accounts.projection.CustomerVersionView;
 
 public class CustomerMapper {
     public static CustomerDto mapToCustomerDto(Customer customer, CustomerDto customerDto) {
@@ -18,4 +22,30 @@ public class CustomerMapper {
         customer.setMobileNumber(customerDto.getMobileNumber());
         return customer;
     }
+
+    public static CustomerDto mapToCustomerDto(CustomerAccountsView view, CustomerDto customerDto) {
+        customerDto.setName(view.name());
+        customerDto.setEmail(view.email());
+        customerDto.setMobileNumber(view.mobileNumber());
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(view.accountNumber());
+        accountsDto.setAccountType(view.accountType());
+        accountsDto.setBranchAddress(view.branchAddress());
+        customerDto.setAccountsDto(accountsDto);
+        customerDto.setVersion(toVersion(view.customerId(), view.customerVersion(), view.accountVersion()));
+        return customerDto;
+    }
+
+    public static String toVersion(Customer customer, Accounts accounts) {
+        return toVersion(customer.getCustomerId(), customer.getVersion(), accounts.getVersion());
+    }
+
+    public static String toVersion(CustomerVersionView view) {
+        return toVersion(view.customerId(), view.customerVersion(), view.accountVersion());
+    }
+
+    // the id keeps a customer registered again under the same mobile number from matching the versions of the old one
+    private static String toVersion(Long customerId, Long customerVersion, Long accountVersion) {
+        return customerId + "." + customerVersion + "." + accountVersion;
+    }
 }
@@ -0,0 +1,91 @@
+package com.accountsDto.accounts.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Active when spring.threads.virtual.enabled=true. A virtual thread that blocks while holding a monitor (synchronized)
+ * stays pinned to its carrier thread, and enough of those starve the carrier pool. The JVM reports each such block
+ * longer than the threshold as a jdk.VirtualThreadPinned JFR event; this streams them into the
+ * jvm.threads.virtual.pinned timer and counts them by the first non-JDK frame, served at /actuator/pinning.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Endpoint(id = "pinning")
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAX_SITES = 1000;
+    private static final int TOP_SITES = 20;
+
+    private final RecordingStream recordingStream;
+    private final Timer pinned;
+    private final Map<String, LongAdder> sites = new ConcurrentHashMap<>();
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${accounts.pinning.threshold:20ms}") Duration threshold) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Time virtual threads stayed pinned to their carrier thread while blocked")
+                .register(meterRegistry);
+        this.recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::record);
+        recordingStream.startAsync();
+    }
+
+    @ReadOperation
+    public List<PinningSite> pinningSites() {
+        return sites.entrySet().stream()
+                .map(site -> new PinningSite(site.getKey(), site.getValue().sum()))
+                .sorted(Comparator.comparingLong(PinningSite::count).reversed())
+                .limit(TOP_SITES)
+                .toList();
+    }
+
+    @PreDestroy
+    public void close() {
+        recordingStream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        if (sites.size() < MAX_SITES || sites.containsKey(site)) {
+            sites.computeIfAbsent(site, key -> new LongAdder()).increment();
+        }
+        // after the site, so a reader that sees the timer move also sees the site
+        pinned.record(event.getDuration());
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace != null) {
+            for (RecordedFrame frame : stackTrace.getFrames()) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                    return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                }
+            }
+        }
+        return "unknown";
+    }
+
+    public record PinningSite(String site, long count) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.accountsDto.accounts.projection;
+
+/*
+ * One row of the accounts listing: the account columns plus who owns it, read by a JPQL constructor expression so
+ * browsing never loads managed entities.
+ */
+public record AccountSummaryView(Long accountNumber, String accountType, String branchAddress, String name,
+                                 String mobileNumber) {
+}
@@ -0,0 +1,9 @@
+package com.accountsDto.accounts.projection;
+
+/*
+ * Read-only row of customer joined with its account, built by a JPQL constructor expression so the
+ * fetch path never loads managed entities. Account columns are null when the customer has no account.
+ */
+public record CustomerAccountsView(Long customerId, String name, String email, String mobileNumber, Long customerVersion,
+                                   Long accountNumber, String accountType, String branchAddress, Long accountVersion) {
+}
@@ -0,0 +1,8 @@
+package com.accountsDto.accounts.projection;
+
+/*
+ * Just enough of a customer and its account to build the ETag, so a conditional fetch that ends in 304 reads two
+ * version columns instead of the full rows. accountVersion is null when the customer has no account.
+ */
+public record CustomerVersionView(Long customerId, String mobileNumber, Long customerVersion, Long accountVersion) {
+}
@@ -1,20 +1,65 @@
 package com.accountsDto.accounts.repository;
 
 import com.accountsDto.accounts.entity.Accounts;
-import jakarta.transaction.Transactional;
+import com.accountsDto.accounts.projection.AccountSummaryView;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountsRepository extends JpaRepository<Accounts,Long> {
 
     Optional<Accounts> findByCustomerId(Long customerId);
-    @Transactional
+
     @Modifying
-    void deleteByCustomerId(Long customerId);
+    @Query("DELETE FROM Accounts a WHERE a.customerId IN " +
+            "(SELECT c.customerId FROM Customer c WHERE c.mobileNumber IN :mobileNumbers)")
+    int deleteByMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /*
+     * Keyset pages of the accounts listing: the rows after the given account number, in account number order. Each
+     * filter combination has its own query so it can seek into the matching index (see schema.sql) rather than
+     * test an optional parameter on every row. The filtered columns are fixed by the WHERE clause, so ordering by
+     * them changes nothing but lets the database see that the index is already in order and skip the sort.
+     */
+    @Query(
+            "SELECT new com.accountsDto.accounts.projection.AccountSummaryView(" +
+            "a.accountNumber, a.accountType, a.branchAddress, c.name, c.mobileNumber) " +
+            "FROM Accounts a JOIN Customer c ON c.customerId = a.customerId " +
+            "WHERE a.accountNumber > :after ORDER BY a.accountNumber")
+    List<AccountSummaryView> findSummariesAfter(@Param("after") long after, Limit limit);
+
+    @Query(
+            "SELECT new com.accountsDto.accounts.projection.AccountSummaryView(" +
+            "a.accountNumber, a.accountType, a.branchAddress, c.name, c.mobileNumber) " +
+            "FROM Accounts a JOIN Customer c ON c.customerId = a.customerId " +
+            "WHERE a.accountType = :accountType AND a.accountNumber > :after ORDER BY a.accountType, a.accountNumber")
+    List<AccountSummaryView> findSummariesByAccountTypeAfter(@Param("accountType") String accountType,
+                                                             @Param("after") long after, Limit limit);
+
+    @Query(
+            "SELECT new com.accountsDto.accounts.projection.AccountSummaryView(" +
+            "a.accountNumber, a.accountType, a.branchAddress, c.name, c.mobileNumber) " +
+            "FROM Accounts a JOIN Customer c ON c.customerId = a.customerId " +
+            "WHERE a.branchAddress = :branchAddress AND a.accountNumber > :after ORDER BY a.branchAddress, a.accountNumber")
+    List<AccountSummaryView> findSummariesByBranchAddressAfter(@Param("branchAddress") String branchAddress,
+                                                               @Param("after") long after, Limit limit);
 
+    @Query(
+            "SELECT new com.accountsDto.accounts.projection.AccountSummaryView(" +
+            "a.accountNumber, a.accountType, a.branchAddress, c.name, c.mobileNumber) " +
+            "FROM Accounts a JOIN Customer c ON c.customerId = a.customerId " +
+            "WHERE a.accountType = :accountType AND a.branchAddress = :branchAddress AND a.accountNumber > :after " +
+            "ORDER BY a.accountType, a.branchAddress, a.accountNumber")
+    List<AccountSummaryView> findSummariesByAccountTypeAndBranchAddressAfter(@Param("accountType") String accountType,
+                                                                             @Param("branchAddress") String branchAddress,
+                                                                             @Param("after") long after, Limit limit);
 
 }
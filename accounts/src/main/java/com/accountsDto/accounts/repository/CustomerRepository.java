@@ -1,16 +1,86 @@
 package com.accountsDto.accounts.repository;
 
 import com.accountsDto.accounts.entity.Customer;
+import com.accountsDto.accounts.projection.CustomerAccountsView;
+import com.accountsDto.accounts.projection.CustomerVersionView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     Optional<Customer>findByMobileNumber(String mobileNumber);
 
+    @Query("SELECT new com.accountsDto.accounts.projection.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, c.version, a.accountNumber, a.accountType, a.branchAddress, a.version) " +
+            "FROM Customer c LEFT JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountsView> findCustomerAccountsByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("SELECT new com.accountsDto.accounts.projection.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, c.version, a.accountNumber, a.accountType, a.branchAddress, a.version) " +
+            "FROM Customer c LEFT JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.customerId = :customerId")
+    Optional<CustomerAccountsView> findCustomerAccountsByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT new com.accountsDto.accounts.projection.CustomerVersionView(c.customerId, c.mobileNumber, c.version, a.version) " +
+            "FROM Customer c LEFT JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.mobileNumber = :mobileNumber")
+    Optional<CustomerVersionView> findCustomerVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("SELECT new com.accountsDto.accounts.projection.CustomerVersionView(c.customerId, c.mobileNumber, c.version, a.version) " +
+            "FROM Customer c LEFT JOIN Accounts a ON a.customerId = c.customerId " +
+            "WHERE c.customerId = :customerId")
+    Optional<CustomerVersionView> findCustomerVersionByCustomerId(@Param("customerId") Long customerId);
+
+    @Query("SELECT c.mobileNumber FROM Customer c WHERE c.mobileNumber IN :mobileNumbers")
+    List<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    @Modifying
+    @Query("DELETE FROM Customer c WHERE c.mobileNumber IN :mobileNumbers")
+    int deleteByMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /*
+     * Scrolls the whole table with a fixed JDBC fetch size. Rows are DTO projections, so nothing accumulates in the
+     * persistence context and memory stays flat however many customers there are. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.accountsDto.accounts.projection.CustomerAccountsView(" +
+            "c.customerId, c.name, c.email, c.mobileNumber, c.version, a.accountNumber, a.accountType, a.branchAddress, a.version) " +
+            "FROM Customer c LEFT JOIN Accounts a ON a.customerId = c.customerId " +
+            "ORDER BY c.customerId")
+    Stream<CustomerAccountsView> streamAllCustomerAccounts();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.mobileNumber FROM Customer c")
+    Stream<String> streamAllMobileNumbers();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.mobileNumber, c.customerId FROM Customer c")
+    Stream<Object[]> streamAllMobileNumberIds();
 
 
 }
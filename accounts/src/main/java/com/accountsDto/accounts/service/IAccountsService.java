@@ -1,7 +1,12 @@
 package com.accountsDto.accounts.service;
 
+import com.accountsDto.accounts.dto.AccountsPageDto;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
 import com.accountsDto.accounts.dto.CustomerDto;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface IAccountsService {
 
     /**
@@ -10,6 +15,13 @@ public interface IAccountsService {
      */
     void createAccount(CustomerDto customerDto);
 
+    /**
+     *
+     * @param customerDtos - CustomerDto Objects to onboard in one transaction
+     * @return the outcome of every row, in request order
+     */
+    List<CreateAccountResultDto> createAccounts(List<CustomerDto> customerDtos);
+
     /**
      *
      * @param mobileNumber - Input Mobile Number
@@ -17,9 +29,16 @@ public interface IAccountsService {
      */
     CustomerDto fetchAccount(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return the version fetchAccount would report for this mobileNumber, read without loading the details
+     */
+    String fetchAccountVersion(String mobileNumber);
+
 /**
      *
-     * @param customerDto - CustomerDto Object
+     * @param customerDto - CustomerDto Object; a non-null version must match the stored one, and is replaced by the new version on success
      * @return boolean indicating if the update of Account details is successful or not
      */
     boolean updateAccount(CustomerDto customerDto);
@@ -32,5 +51,28 @@ public interface IAccountsService {
 
     boolean deleteAccount(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return number of customers deleted together with their accounts
+     */
+    int deleteAccounts(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param consumer - receives every customer with its account details, one at a time
+     */
+    void exportAccounts(Consumer<CustomerDto> consumer);
+
+    /**
+     *
+     * @param accountType - only accounts of this type, or all when null or blank
+     * @param branchAddress - only accounts of this branch, or all when null or blank
+     * @param after - nextAfter of the previous page, or null for the first page
+     * @param size - maximum number of accounts in the page
+     * @return the accounts following after, by ascending account number
+     */
+    AccountsPageDto listAccounts(String accountType, String branchAddress, Long after, int size);
+
 
 }
@@ -0,0 +1,13 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.dto.CustomerDetailsDto;
+
+public interface ICustomerDetailsService {
+
+    /**
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Cards and Loans details; services that did not answer in time are listed as unavailable
+     */
+    CustomerDetailsDto fetchCustomerDetails(String mobileNumber);
+}
@@ -0,0 +1,28 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.importer.CustomerImportJob;
+
+import java.util.Collection;
+
+public interface ICustomerImportService {
+
+    /**
+     *
+     * @param fileName - CSV file (name,email,mobileNumber) inside the configured import directory
+     * @return the started import, which runs in the background
+     */
+    CustomerImportJob startImport(String fileName);
+
+    /**
+     *
+     * @return every import started since the service came up
+     */
+    Collection<CustomerImportJob> getImports();
+
+    /**
+     *
+     * @param id - Import id
+     * @return the import with the given id, or null if there is none
+     */
+    CustomerImportJob getImport(String id);
+}
@@ -1,22 +1,48 @@
 package com.accountsDto.accounts.service.impl;
 
 import com.accountsDto.accounts.constants.AccountsConstants;
+import com.accountsDto.accounts.dto.AccountSummaryDto;
 import com.accountsDto.accounts.dto.AccountsDto;
+import com.accountsDto.accounts.dto.AccountsPageDto;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
 import com.accountsDto.accounts.dto.CustomerDto;
 import com.accountsDto.accounts.entity.Accounts;
 import com.accountsDto.accounts.entity.Customer;
+import com.accountsDto.accounts.exception.AccountVersionMismatchException;
 import com.accountsDto.accounts.exception.CustomerAlreadyExistsException;
 import com.accountsDto.accounts.exception.ResourceNotFoundException;
+import com.accountsDto.accounts.filter.MobileNumberFilter;
+import com.accountsDto.accounts.index.MobileNumberIndex;
 import com.accountsDto.accounts.mapper.AccountsMapper;
 import com.accountsDto.accounts.mapper.CustomerMapper;
+import com.accountsDto.accounts.projection.AccountSummaryView;
+import com.accountsDto.accounts.projection.CustomerAccountsView;
+import com.accountsDto.accounts.projection.CustomerVersionView;
 import com.accountsDto.accounts.repository.AccountsRepository;
 import com.accountsDto.accounts.repository.CustomerRepository;
 import com.accountsDto.accounts.service.IAccountsService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 @AllArgsConstructor
@@ -24,6 +50,10 @@ public class AccountsServiceImpl implements IAccountsService {
 
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private Validator validator;
+    private CacheManager cacheManager;
+    private MobileNumberFilter mobileNumberFilter;
+    private MobileNumberIndex mobileNumberIndex;
 
     /**
      * @param customerDto - CustomerDto Object
@@ -31,15 +61,67 @@ public class AccountsServiceImpl implements IAccountsService {
     @Override
     public void createAccount(CustomerDto customerDto) {
         Customer customer = CustomerMapper.mapToCustomer(customerDto, new Customer());
-        Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
+        Optional<Customer> optionalCustomer = mobileNumberIndex.find(customerDto.getMobileNumber(), customerRepository::findById,
+                Customer::getMobileNumber, mobileNumber -> mobileNumberFilter.find(mobileNumber, customerRepository::findByMobileNumber));
         if (optionalCustomer.isPresent()) {
             throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber " + customerDto.getMobileNumber());
         }
         Customer savedCustomer = customerRepository.save(customer);
+        mobileNumberFilter.added(savedCustomer.getMobileNumber());
+        mobileNumberIndex.added(savedCustomer.getMobileNumber(), savedCustomer.getCustomerId());
         accountsRepository.save(createNewAccount(savedCustomer));
     }
 
 
+    /**
+     * Rows that are null, fail validation, repeat a mobile number of an earlier row or belong to an already registered
+     * customer are reported and skipped; the rest are inserted together so Hibernate can batch them.
+     *
+     * @param customerDtos - CustomerDto Objects to onboard in one transaction
+     * @return the outcome of every row, in request order
+     */
+    @Override
+    @Transactional
+    public List<CreateAccountResultDto> createAccounts(List<CustomerDto> customerDtos) {
+        CreateAccountResultDto[] results = new CreateAccountResultDto[customerDtos.size()];
+        Map<String, Integer> rowsByMobileNumber = new LinkedHashMap<>();
+        for (int row = 0; row < customerDtos.size(); row++) {
+            CustomerDto customerDto = customerDtos.get(row);
+            if (customerDto == null) {
+                results[row] = new CreateAccountResultDto(null, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_NULL_ROW);
+                continue;
+            }
+            String mobileNumber = customerDto.getMobileNumber();
+            Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+            if (!violations.isEmpty()) {
+                results[row] = new CreateAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, violations.iterator().next().getMessage());
+            } else if (mobileNumber == null || mobileNumber.isEmpty()) {
+                results[row] = new CreateAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, "Mobile number must be 10 digits");
+            } else if (rowsByMobileNumber.putIfAbsent(mobileNumber, row) != null) {
+                results[row] = new CreateAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST);
+            }
+        }
+        if (!rowsByMobileNumber.isEmpty()) {
+            for (String mobileNumber : mobileNumberFilter.findExisting(rowsByMobileNumber.keySet(), customerRepository::findExistingMobileNumbers)) {
+                int row = rowsByMobileNumber.remove(mobileNumber);
+                results[row] = new CreateAccountResultDto(mobileNumber, AccountsConstants.STATUS_400, "Customer already registered with given mobileNumber " + mobileNumber);
+            }
+        }
+
+        List<Customer> customers = new ArrayList<>(rowsByMobileNumber.size());
+        for (int row : rowsByMobileNumber.values()) {
+            customers.add(CustomerMapper.mapToCustomer(customerDtos.get(row), new Customer()));
+        }
+        List<Customer> savedCustomers = customerRepository.saveAll(customers);
+        accountsRepository.saveAll(savedCustomers.stream().map(this::createNewAccount).toList());
+        rowsByMobileNumber.keySet().forEach(mobileNumberFilter::added);
+        savedCustomers.forEach(customer -> mobileNumberIndex.added(customer.getMobileNumber(), customer.getCustomerId()));
+
+        rowsByMobileNumber.forEach((mobileNumber, row) ->
+                results[row] = new CreateAccountResultDto(mobileNumber, AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
+        return Arrays.asList(results);
+    }
+
     /**
      * @param customer - Customer Object
      * @return the new account details
@@ -47,9 +129,6 @@ public class AccountsServiceImpl implements IAccountsService {
     private Accounts createNewAccount(Customer customer) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
         return newAccount;
@@ -61,36 +140,79 @@ public class AccountsServiceImpl implements IAccountsService {
      * @return Accounts Details based on a given mobileNumber
      */
 
-
+    // not sync: a synchronized load holds the cache entry's lock while it waits for a pooled connection, and a writer
+    // evicting that entry while holding its own connection (open-in-view keeps it to the end of the request) deadlocks
     @Override
+    @Cacheable(cacheNames = AccountsConstants.ACCOUNTS_CACHE, key = "#mobileNumber")
     public CustomerDto fetchAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
-        Accounts accounts = accountsRepository.findByCustomerId(customer.getCustomerId()).orElseThrow(() -> new ResourceNotFoundException("Account", "customerId", customer.getCustomerId().toString()));
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer, new CustomerDto());
-        customerDto.setAccountsDto(AccountsMapper.mapToAccountsDto(accounts, new AccountsDto()));
-        return customerDto;
+        CustomerAccountsView view = mobileNumberIndex.find(mobileNumber, customerRepository::findCustomerAccountsByCustomerId,
+                CustomerAccountsView::mobileNumber, number -> mobileNumberFilter.find(number, customerRepository::findCustomerAccountsByMobileNumber)).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+        if (view.accountNumber() == null) {
+            throw new ResourceNotFoundException("Account", "customerId", view.customerId().toString());
+        }
+        return CustomerMapper.mapToCustomerDto(view, new CustomerDto());
+    }
+
+    /**
+     * A cached fetch already carries its version; otherwise only the two version columns are read. Either way the
+     * answer is as fresh as what fetchAccount would return, since the cache is evicted after every committed change.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return the version fetchAccount would report for this mobileNumber
+     */
+    @Override
+    public String fetchAccountVersion(String mobileNumber) {
+        Cache cache = cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE);
+        CustomerDto cached = cache == null ? null : cache.get(mobileNumber, CustomerDto.class);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        CustomerVersionView view = mobileNumberIndex.find(mobileNumber, customerRepository::findCustomerVersionByCustomerId,
+                CustomerVersionView::mobileNumber, number -> mobileNumberFilter.find(number, customerRepository::findCustomerVersionByMobileNumber)).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
+        if (view.accountVersion() == null) {
+            throw new ResourceNotFoundException("Account", "customerId", view.customerId().toString());
+        }
+        return CustomerMapper.toVersion(view);
     }
 
     /*
      * This method updates the account details of a customer.
      *
+     * Both rows are loaded once and changed in place; Hibernate's dirty checking writes only the changed columns
+     * (@DynamicUpdate) and guards each UPDATE with the version it read. A version sent by the client (If-Match) is
+     * checked before anything is written, so stale requests are rejected without a write.
+     *
      * @param customerDto - The data transfer object containing updated customer information.
      * @return boolean - Returns true if the account was successfully updated, false otherwise.
      */
 
     @Override
+    @Transactional
     public boolean updateAccount(CustomerDto customerDto) {
         boolean isUpdated = false;
         AccountsDto accountsDto = customerDto.getAccountsDto();
         if (accountsDto != null) {
             Accounts accounts = accountsRepository.findById(accountsDto.getAccountNumber()).orElseThrow(() -> new ResourceNotFoundException("Account", "AccountNumber", accountsDto.getAccountNumber().toString()));
-            AccountsMapper.mapToAccounts(accountsDto, accounts);
-            accounts = accountsRepository.save(accounts);
-
             Long customerId = accounts.getCustomerId();
             Customer customer = customerRepository.findById(customerId).orElseThrow(() -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString()));
+            String currentVersion = CustomerMapper.toVersion(customer, accounts);
+            if (customerDto.getVersion() != null && !customerDto.getVersion().equals(currentVersion)) {
+                throw new AccountVersionMismatchException(customerDto.getVersion(), currentVersion);
+            }
+
+            String previousMobileNumber = customer.getMobileNumber();
+            AccountsMapper.mapToAccounts(accountsDto, accounts);
             CustomerMapper.mapToCustomer(customerDto, customer);
-            customerRepository.save(customer);
+            accountsRepository.flush();
+            customerDto.setVersion(CustomerMapper.toVersion(customer, accounts));
+            if (!Objects.equals(previousMobileNumber, customer.getMobileNumber())) {
+                mobileNumberFilter.added(customer.getMobileNumber());
+                mobileNumberFilter.removed(previousMobileNumber);
+                mobileNumberIndex.added(customer.getMobileNumber(), customerId);
+                mobileNumberIndex.removed(previousMobileNumber, customerId);
+            }
+            evictAccount(previousMobileNumber);
+            evictAccount(customer.getMobileNumber());
             isUpdated = true;
         }
         return isUpdated;
@@ -104,12 +226,116 @@ public class AccountsServiceImpl implements IAccountsService {
      */
 
     @Override
+    @Transactional
     public boolean deleteAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
-        accountsRepository.deleteByCustomerId(customer.getCustomerId());
-        customerRepository.deleteById(customer.getCustomerId());
+        long customerId = mobileNumberIndex.idOf(mobileNumber);
+        if (customerId == MobileNumberIndex.ABSENT
+                || (customerId == MobileNumberIndex.UNKNOWN && !mobileNumberFilter.mightContain(mobileNumber))) {
+            throw new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber);
+        }
+        List<String> mobileNumbers = List.of(mobileNumber);
+        accountsRepository.deleteByMobileNumbers(mobileNumbers);
+        if (customerRepository.deleteByMobileNumbers(mobileNumbers) == 0) {
+            mobileNumberFilter.recordFalsePositive();
+            throw new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber);
+        }
+        mobileNumberFilter.removed(mobileNumber);
+        mobileNumberIndex.removed(mobileNumber, customerId);
+        evictAccount(mobileNumber);
         return true;
     }
 
+    /**
+     * Deletes the accounts and then the customers with two bulk statements, whatever the number of customers. The
+     * registered numbers are looked up first (skipping those the mobile number filter rules out), so the filter only
+     * drops numbers this transaction really deleted; if a concurrent delete got to some of them first, the filter
+     * keeps them all rather than guess which.
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return number of customers deleted together with their accounts
+     */
+    @Override
+    @Transactional
+    public int deleteAccounts(List<String> mobileNumbers) {
+        List<String> existing = mobileNumberFilter.findExisting(mobileNumbers, customerRepository::findExistingMobileNumbers);
+        if (existing.isEmpty()) {
+            return 0;
+        }
+        long[] customerIds = existing.stream().mapToLong(mobileNumberIndex::idOf).toArray();
+        accountsRepository.deleteByMobileNumbers(existing);
+        int deleted = customerRepository.deleteByMobileNumbers(existing);
+        if (deleted == existing.size()) {
+            existing.forEach(mobileNumberFilter::removed);
+        }
+        for (int i = 0; i < customerIds.length; i++) {
+            mobileNumberIndex.removed(existing.get(i), customerIds[i]);
+        }
+        existing.forEach(this::evictAccount);
+        return deleted;
+    }
+
+    /**
+     * @param consumer - receives every customer with its account details, one at a time
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAccounts(Consumer<CustomerDto> consumer) {
+        try (Stream<CustomerAccountsView> views = customerRepository.streamAllCustomerAccounts()) {
+            views.forEach(view -> consumer.accept(CustomerMapper.mapToCustomerDto(view, new CustomerDto())));
+        }
+    }
+
+    /**
+     * Reads one row past the page to know whether another page follows, so no count query is needed.
+     *
+     * @param accountType - only accounts of this type, or all when null or blank
+     * @param branchAddress - only accounts of this branch, or all when null or blank
+     * @param after - nextAfter of the previous page, or null for the first page
+     * @param size - maximum number of accounts in the page
+     * @return the accounts following after, by ascending account number
+     */
+    @Override
+    public AccountsPageDto listAccounts(String accountType, String branchAddress, Long after, int size) {
+        long from = after == null ? 0 : after;
+        Limit limit = Limit.of(size + 1);
+        boolean byType = accountType != null && !accountType.isBlank();
+        boolean byBranch = branchAddress != null && !branchAddress.isBlank();
+        List<AccountSummaryView> views;
+        if (byType && byBranch) {
+            views = accountsRepository.findSummariesByAccountTypeAndBranchAddressAfter(accountType, branchAddress, from, limit);
+        } else if (byType) {
+            views = accountsRepository.findSummariesByAccountTypeAfter(accountType, from, limit);
+        } else if (byBranch) {
+            views = accountsRepository.findSummariesByBranchAddressAfter(branchAddress, from, limit);
+        } else {
+            views = accountsRepository.findSummariesAfter(from, limit);
+        }
+        boolean more = views.size() > size;
+        List<AccountSummaryDto> accounts = views.stream().limit(size)
+                .map(view -> AccountsMapper.mapToAccountSummaryDto(view, new AccountSummaryDto())).toList();
+        return new AccountsPageDto(accounts, more ? accounts.get(size - 1).getAccountNumber() : null);
+    }
 
+    /**
+     * Evicts once the surrounding transaction has committed; evicting earlier would let a concurrent fetch cache the
+     * rows as they were before the commit.
+     *
+     * @param mobileNumber - cache key of the customer whose details changed
+     */
+    private void evictAccount(String mobileNumber) {
+        if (mobileNumber == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(AccountsConstants.ACCOUNTS_CACHE);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(mobileNumber);
+                }
+            });
+        } else {
+            cache.evict(mobileNumber);
+        }
+    }
 }
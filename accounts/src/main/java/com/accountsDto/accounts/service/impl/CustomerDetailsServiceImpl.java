@@ -0,0 +1,131 @@
+package com.accountsDto.accounts.service.impl;
+
+import com.accountsDto.accounts.dto.CardsDto;
+import com.accountsDto.accounts.dto.CustomerDetailsDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.dto.LoansDto;
+import com.accountsDto.accounts.service.IAccountsService;
+import com.accountsDto.accounts.service.ICustomerDetailsService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/*
+ * Customer 360 view. The cards and loans lookups start on virtual threads before the local account fetch, so the
+ * response takes as long as the slowest of the three instead of their sum. A remote call that fails or does not answer
+ * within the timeout leaves its section empty and is listed in unavailableServices; only the account itself is required.
+ * The remote calls ask for accounts.clients.media-type (CBOR by default) and still accept JSON from older instances.
+ */
+@Service
+public class CustomerDetailsServiceImpl implements ICustomerDetailsService {
+
+    static final String CARDS = "cards";
+    static final String LOANS = "loans";
+
+    private final IAccountsService iAccountsService;
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final RestClient cardsClient;
+    private final RestClient loansClient;
+    private final MediaType[] acceptableMediaTypes;
+    private final Duration timeout;
+
+    public CustomerDetailsServiceImpl(IAccountsService iAccountsService, RestClient.Builder restClientBuilder,
+                                      @Value("${accounts.clients.cards-url}") String cardsUrl,
+                                      @Value("${accounts.clients.loans-url}") String loansUrl,
+                                      @Value("${accounts.clients.connect-timeout}") Duration connectTimeout,
+                                      @Value("${accounts.clients.timeout}") Duration timeout,
+                                      @Value("${accounts.clients.media-type}") String mediaType) {
+        this.iAccountsService = iAccountsService;
+        this.timeout = timeout;
+        this.acceptableMediaTypes = new MediaType[] {MediaType.parseMediaType(mediaType),
+                new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.5"))};
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        // one client for both services: it keeps idle HTTP/1.1 connections alive and reuses them across requests
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(connectTimeout)
+                .executor(executor)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient, executor);
+        requestFactory.setReadTimeout(timeout);
+        this.cardsClient = restClientBuilder.clone().baseUrl(cardsUrl).requestFactory(requestFactory).build();
+        this.loansClient = restClientBuilder.clone().baseUrl(loansUrl).requestFactory(requestFactory).build();
+    }
+
+    /**
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Cards and Loans details of the given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        Future<CardsDto> cards = executor.submit(() -> fetch(cardsClient, mobileNumber, CardsDto.class));
+        Future<LoansDto> loans = executor.submit(() -> fetch(loansClient, mobileNumber, LoansDto.class));
+        CustomerDto customerDto;
+        try {
+            customerDto = iAccountsService.fetchAccount(mobileNumber);
+        } catch (RuntimeException e) {
+            cards.cancel(true);
+            loans.cancel(true);
+            throw e;
+        }
+
+        CustomerDetailsDto customerDetailsDto = new CustomerDetailsDto();
+        customerDetailsDto.setName(customerDto.getName());
+        customerDetailsDto.setEmail(customerDto.getEmail());
+        customerDetailsDto.setMobileNumber(customerDto.getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerDto.getAccountsDto());
+        customerDetailsDto.setCardsDto(await(cards, deadline, CARDS, customerDetailsDto));
+        customerDetailsDto.setLoansDto(await(loans, deadline, LOANS, customerDetailsDto));
+        return customerDetailsDto;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private <T> T fetch(RestClient client, String mobileNumber, Class<T> type) {
+        try {
+            return client.get()
+                    .uri(uriBuilder -> uriBuilder.path("/api/fetch").queryParam("mobileNumber", mobileNumber).build())
+                    .accept(acceptableMediaTypes)
+                    .retrieve()
+                    .body(type);
+        } catch (HttpClientErrorException.NotFound e) {
+            // the customer simply has nothing in that service
+            return null;
+        }
+    }
+
+    private static <T> T await(Future<T> call, long deadline, String service, CustomerDetailsDto customerDetailsDto) {
+        try {
+            return call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            call.cancel(true);
+            customerDetailsDto.getUnavailableServices().add(service);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel(true);
+            customerDetailsDto.getUnavailableServices().add(service);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.accountsDto.accounts.service.impl;
+
+import com.accountsDto.accounts.constants.AccountsConstants;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.exception.ResourceNotFoundException;
+import com.accountsDto.accounts.importer.CustomerCsvParser;
+import com.accountsDto.accounts.importer.CustomerImportJob;
+import com.accountsDto.accounts.service.IAccountsService;
+import com.accountsDto.accounts.service.ICustomerImportService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/*
+ * Bulk import of partner bank customer files. The file is cut into line-aligned partitions that are memory-mapped and
+ * parsed in parallel; rows go through IAccountsService.createAccounts in chunks, so they get the same validation,
+ * duplicate handling and batched inserts as POST /api/create/batch.
+ */
+@Service
+public class CustomerImportServiceImpl implements ICustomerImportService {
+
+    private static final long MAX_PARTITION_BYTES = 1L << 30;
+    private static final int ALIGN_BUFFER_BYTES = 8192;
+
+    private final IAccountsService iAccountsService;
+    private final Path importDirectory;
+    private final int parallelism;
+    private final ExecutorService executor;
+    private final Counter rowsCreated;
+    private final Counter rowsRejected;
+    private final Map<String, CustomerImportJob> jobs = new ConcurrentHashMap<>();
+
+    public CustomerImportServiceImpl(IAccountsService iAccountsService, MeterRegistry meterRegistry,
+                                     @Value("${accounts.import.directory}") String importDirectory,
+                                     @Value("${accounts.import.parallelism}") int parallelism) {
+        this.iAccountsService = iAccountsService;
+        this.importDirectory = Path.of(importDirectory).toAbsolutePath().normalize();
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism);
+        this.rowsCreated = Counter.builder("accounts.import.rows").tag("outcome", "created").register(meterRegistry);
+        this.rowsRejected = Counter.builder("accounts.import.rows").tag("outcome", "rejected").register(meterRegistry);
+    }
+
+    /**
+     * @param fileName - CSV file (name,email,mobileNumber) inside the configured import directory
+     * @return the started import, which runs in the background
+     */
+    @Override
+    public CustomerImportJob startImport(String fileName) {
+        Path file = importDirectory.resolve(fileName).normalize();
+        if (!file.startsWith(importDirectory) || !Files.isRegularFile(file)) {
+            throw new ResourceNotFoundException("Import file", "fileName", fileName);
+        }
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            long[] bounds = partitionBounds(channel);
+            CustomerImportJob job = new CustomerImportJob(UUID.randomUUID().toString(), fileName, channel.size(), bounds.length - 1);
+            jobs.put(job.getId(), job);
+
+            CompletableFuture<?>[] partitions = new CompletableFuture<?>[bounds.length - 1];
+            for (int i = 0; i < partitions.length; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                boolean first = i == 0;
+                partitions[i] = CompletableFuture.runAsync(() -> importPartition(channel, start, end, first, job), executor);
+            }
+            CompletableFuture.allOf(partitions).whenComplete((ignored, failure) -> {
+                closeQuietly(channel);
+                if (failure != null) {
+                    job.fail(failure.getCause() != null ? failure.getCause() : failure);
+                } else {
+                    job.complete();
+                }
+            });
+            return job;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Collection<CustomerImportJob> getImports() {
+        return jobs.values();
+    }
+
+    @Override
+    public CustomerImportJob getImport(String id) {
+        return jobs.get(id);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Splits the file into at least one partition per worker, each at most 1 GiB so it fits a single mapping, and
+     * moves every inner boundary forward to the start of the next line.
+     */
+    private long[] partitionBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int count = (int) Math.max(parallelism, (size + MAX_PARTITION_BYTES - 1) / MAX_PARTITION_BYTES);
+        List<Long> bounds = new ArrayList<>(count + 1);
+        bounds.add(0L);
+        ByteBuffer probe = ByteBuffer.allocate(ALIGN_BUFFER_BYTES);
+        for (int i = 1; i < count; i++) {
+            long bound = nextLineStart(channel, Math.max(size * i / count, bounds.get(bounds.size() - 1)), probe);
+            if (bound > bounds.get(bounds.size() - 1) && bound < size) {
+                bounds.add(bound);
+            }
+        }
+        bounds.add(size);
+        return bounds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, ByteBuffer probe) throws IOException {
+        while (true) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                return position;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    private void importPartition(FileChannel channel, long start, long end, boolean first, CustomerImportJob job) {
+        try {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            CustomerCsvParser parser = new CustomerCsvParser(region);
+            List<CustomerDto> chunk = new ArrayList<>(AccountsConstants.MAX_BATCH_SIZE);
+            int reportedPosition = 0;
+            CustomerDto row = parser.next();
+            if (first && row != null && "name".equals(row.getName()) && "mobileNumber".equals(row.getMobileNumber())) {
+                row = parser.next();
+            }
+            for (; row != null; row = parser.next()) {
+                chunk.add(row);
+                if (chunk.size() == AccountsConstants.MAX_BATCH_SIZE) {
+                    persist(chunk, job);
+                    chunk.clear();
+                    job.getProcessedBytes().addAndGet(parser.position() - reportedPosition);
+                    reportedPosition = parser.position();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                persist(chunk, job);
+            }
+            job.getProcessedBytes().addAndGet(parser.position() - reportedPosition);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void persist(List<CustomerDto> chunk, CustomerImportJob job) {
+        List<CreateAccountResultDto> results;
+        try {
+            results = iAccountsService.createAccounts(chunk);
+        } catch (DataIntegrityViolationException e) {
+            // another partition inserted one of these mobile numbers between the duplicate check and the insert;
+            // the retry sees it and reports that row as already registered
+            results = iAccountsService.createAccounts(chunk);
+        }
+        long created = results.stream().filter(result -> AccountsConstants.STATUS_201.equals(result.getStatusCode())).count();
+        long rejected = results.size() - created;
+        job.getRowsRead().addAndGet(results.size());
+        job.getRowsCreated().addAndGet(created);
+        job.getRowsRejected().addAndGet(rejected);
+        rowsCreated.increment(created);
+        rowsRejected.increment(rejected);
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // nothing left to read from it
+        }
+    }
+}
@@ -1,21 +1,59 @@
 CREATE TABLE IF NOT EXISTS customer (
-  customer_id int AUTO_INCREMENT  PRIMARY KEY,
+  customer_id bigint PRIMARY KEY,
   name varchar(100) NOT NULL,
   email varchar(100) NOT NULL,
   mobile_number varchar(20) NOT NULL,
   created_at date NOT NULL,
   created_by varchar(20) NOT NULL,
   updated_at date DEFAULT NULL,
-    updated_by varchar(20) DEFAULT NULL
+    updated_by varchar(20) DEFAULT NULL,
+  version bigint DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS accounts (
-  customer_id int NOT NULL,
-   account_number int AUTO_INCREMENT  PRIMARY KEY,
+  customer_id bigint NOT NULL,
+   account_number bigint PRIMARY KEY,
   account_type varchar(100) NOT NULL,
   branch_address varchar(200) NOT NULL,
   created_at date NOT NULL,
    created_by varchar(20) NOT NULL,
    updated_at date DEFAULT NULL,
-    updated_by varchar(20) DEFAULT NULL
-);
\ No newline at end of file
+    updated_by varchar(20) DEFAULT NULL,
+  version bigint DEFAULT 0 NOT NULL
+);
+
+-- Optimistic locking version (BaseEntity.version); existing rows start at 0.
+ALTER TABLE customer ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE accounts ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+-- customer.customer_id is a bigint from customer_seq; keep the column that joins to it the same type.
+ALTER TABLE accounts ALTER COLUMN customer_id SET DATA TYPE bigint;
+
+-- Account numbers are allocated in blocks of 50 (see Accounts). Numbering starts above the
+-- 1000000000..1899999999 range the old random generator drew from, so it cannot hit legacy rows.
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1900000000 INCREMENT BY 50;
+
+-- Customer ids come from a pooled sequence so inserts can be JDBC-batched. On tables created with the
+-- old AUTO_INCREMENT column the sequence is moved past the highest existing id, never backwards.
+CREATE SEQUENCE IF NOT EXISTS customer_seq START WITH 1 INCREMENT BY 50;
+
+ALTER SEQUENCE customer_seq RESTART WITH (
+  SELECT GREATEST(COALESCE(MAX(c.customer_id), 0) + 1, s.base_value)
+  FROM customer c, information_schema.sequences s
+  WHERE s.sequence_name = 'CUSTOMER_SEQ' GROUP BY s.base_value);
+
+-- Duplicate mobile numbers left behind by the old check-then-insert create path make this statement fail, and
+-- startup with it: they are customers to merge by hand, not rows a startup script should pick and delete. List them with
+-- SELECT mobile_number, COUNT(*) FROM customer GROUP BY mobile_number HAVING COUNT(*) > 1
+CREATE UNIQUE INDEX IF NOT EXISTS ux_customer_mobile_number ON customer (mobile_number);
+
+CREATE INDEX IF NOT EXISTS ix_accounts_customer_id ON accounts (customer_id);
+
+-- One index per filter combination of /api/list, each ending in account_number, so a page is a seek to the
+-- first number after the cursor followed by an in-order range scan, however deep the page.
+CREATE INDEX IF NOT EXISTS ix_accounts_type_branch_number ON accounts (account_type, branch_address, account_number);
+
+CREATE INDEX IF NOT EXISTS ix_accounts_type_number ON accounts (account_type, account_number);
+
+CREATE INDEX IF NOT EXISTS ix_accounts_branch_number ON accounts (branch_address, account_number);
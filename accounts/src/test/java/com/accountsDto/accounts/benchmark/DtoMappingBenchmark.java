@@ -0,0 +1,77 @@
+package com.accountsDto.accounts.benchmark;
+
+import com.accountsDto.accounts.dto.AccountsDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.entity.Accounts;
+import com.accountsDto.accounts.entity.Customer;
+import com.accountsDto.accounts.mapper.AccountsMapper;
+import com.accountsDto.accounts.mapper.CustomerMapper;
+import com.accountsDto.accounts.projection.CustomerAccountsView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Baseline cost of the per-response work outside the database: the static mappers on the fetch and update paths and
+ * Jackson (configured like Spring Boot's ObjectMapper) turning CustomerDto into JSON and back. Run it with the GC
+ * profiler to see bytes allocated per operation next to the throughput.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DtoMappingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoMappingBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private CustomerAccountsView view;
+    private Accounts accounts;
+    private CustomerDto customerDto;
+    private byte[] customerJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        view = new CustomerAccountsView(1L, "Jordi D", "jordi@bank.com", "1234567890", 3L,
+                1900000000L, "Savings", "123 Main Street, New York", 1L);
+        customerDto = CustomerMapper.mapToCustomerDto(view, new CustomerDto());
+        accounts = AccountsMapper.mapToAccounts(customerDto.getAccountsDto(), new Accounts());
+        customerJson = objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto mapToCustomerDto() {
+        return CustomerMapper.mapToCustomerDto(view, new CustomerDto());
+    }
+
+    @Benchmark
+    public Customer mapToCustomer() {
+        return CustomerMapper.mapToCustomer(customerDto, new Customer());
+    }
+
+    @Benchmark
+    public Accounts mapToAccounts() {
+        return AccountsMapper.mapToAccounts(customerDto.getAccountsDto(), new Accounts());
+    }
+
+    @Benchmark
+    public AccountsDto mapToAccountsDto() {
+        return AccountsMapper.mapToAccountsDto(accounts, new AccountsDto());
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerDto() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto deserializeCustomerDto() throws IOException {
+        return objectMapper.readValue(customerJson, CustomerDto.class);
+    }
+}
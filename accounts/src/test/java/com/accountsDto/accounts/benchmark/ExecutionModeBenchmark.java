@@ -0,0 +1,197 @@
+package com.accountsDto.accounts.benchmark;
+
+import com.accountsDto.accounts.AccountsApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Throughput and latency of the accounts CRUD endpoints with Tomcat on platform threads (the default 200-thread pool)
+ * versus virtual threads, at increasing numbers of concurrent clients. Each client is a closed loop of
+ * create -> fetch -> update -> fetch -> delete on its own mobile numbers, so every call after the first fetch misses
+ * the cache and goes to H2. The service runs in this JVM on a random port; clients always use virtual threads, so
+ * only the server side changes between modes.
+ *
+ * mvn -Pbenchmark test-compile exec:exec@execution-modes [-Dexecution-modes.args="200,2000,20000 10 30"]
+ *
+ * Arguments: comma-separated client counts, warmup seconds, measurement seconds. 20,000 clients need about 40,000
+ * file descriptors (both ends of every connection live in this JVM), so raise ulimit -n first.
+ */
+public class ExecutionModeBenchmark {
+
+    private static final String[] OPERATIONS = {"create", "fetch", "update", "delete"};
+
+    public static void main(String[] args) throws Exception {
+        int[] clientCounts = Arrays.stream((args.length > 0 ? args[0] : "200,2000,20000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Duration warmup = Duration.ofSeconds(args.length > 1 ? Long.parseLong(args[1]) : 10);
+        Duration measurement = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+
+        // devtools would otherwise relaunch main() in its restart class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %7s %-7s %10s %9s %9s %9s %8s",
+                "threads", "clients", "op", "req/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+                for (int clients : clientCounts) {
+                    // 10-digit numbers, so the warmup creates customers instead of only exercising validation
+                    run(port, clients, warmup, 9_000_000_000L + clients * 10_000L);
+                    Result result = run(port, clients, measurement, 1_000_000_000L + clients * 10_000L);
+                    for (int op = 0; op < OPERATIONS.length; op++) {
+                        report.add(result.format(virtual ? "virtual" : "platform", clients, op, measurement));
+                    }
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtual) {
+        // passed as command line arguments so they override application.yml
+        return new SpringApplicationBuilder(AccountsApplication.class).run(
+                "--server.port=0",
+                // leave connection limits out of the comparison: both modes accept every client
+                "--server.tomcat.max-connections=50000",
+                "--server.tomcat.accept-count=50000",
+                "--spring.threads.virtual.enabled=" + virtual,
+                "--spring.datasource.url=jdbc:h2:mem:execution_modes_" + virtual,
+                "--spring.jpa.show-sql=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN");
+    }
+
+    private static Result run(int port, int clients, Duration duration, long firstMobileNumber) throws InterruptedException {
+        Result result = new Result(clients);
+        AtomicLong nextMobileNumber = new AtomicLong(firstMobileNumber);
+        long deadline = System.nanoTime() + duration.toNanos();
+        CountDownLatch done = new CountDownLatch(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(executor).build()) {
+            for (int c = 0; c < clients; c++) {
+                int client = c;
+                executor.submit(() -> {
+                    try {
+                        while (System.nanoTime() < deadline) {
+                            cycle(httpClient, port, Long.toString(nextMobileNumber.getAndIncrement() % 10_000_000_000L), result.samples[client]);
+                        }
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            done.await();
+        }
+        return result;
+    }
+
+    private static void cycle(HttpClient httpClient, int port, String mobileNumber, Samples samples) {
+        String base = "http://localhost:" + port + "/api";
+        String customer = "{\"name\":\"Load " + mobileNumber + "\",\"email\":\"load" + mobileNumber + "@bank.com\",\"mobileNumber\":\"" + mobileNumber + "\"";
+        if (!call(httpClient, samples, 0, post(base + "/create", customer + "}"))) {
+            return;
+        }
+        String fetched = fetch(httpClient, samples, base + "/fetch?mobileNumber=" + mobileNumber);
+        if (fetched == null) {
+            return;
+        }
+        call(httpClient, samples, 2, HttpRequest.newBuilder(URI.create(base + "/update"))
+                .header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString(fetched.replace("Load ", "Updated "))).build());
+        fetch(httpClient, samples, base + "/fetch?mobileNumber=" + mobileNumber);
+        call(httpClient, samples, 3, HttpRequest.newBuilder(URI.create(base + "/delete?mobileNumber=" + mobileNumber)).DELETE().build());
+    }
+
+    private static HttpRequest post(String uri, String body) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private static String fetch(HttpClient httpClient, Samples samples, String uri) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(), HttpResponse.BodyHandlers.ofString());
+            samples.add(1, System.nanoTime() - start, response.statusCode() < 300);
+            return response.statusCode() < 300 ? response.body() : null;
+        } catch (Exception e) {
+            samples.add(1, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    private static boolean call(HttpClient httpClient, Samples samples, int op, HttpRequest request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            samples.add(op, System.nanoTime() - start, response.statusCode() < 300);
+            return response.statusCode() < 300;
+        } catch (Exception e) {
+            samples.add(op, System.nanoTime() - start, false);
+            return false;
+        }
+    }
+
+    /** Latencies of one client, written only by that client's thread. */
+    private static final class Samples {
+
+        private final long[][] nanos = new long[OPERATIONS.length][64];
+        private final int[] counts = new int[OPERATIONS.length];
+        private final int[] errors = new int[OPERATIONS.length];
+
+        void add(int op, long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors[op]++;
+                return;
+            }
+            if (counts[op] == nanos[op].length) {
+                nanos[op] = Arrays.copyOf(nanos[op], counts[op] * 2);
+            }
+            nanos[op][counts[op]++] = latencyNanos;
+        }
+    }
+
+    private static final class Result {
+
+        private final Samples[] samples;
+
+        Result(int clients) {
+            samples = new Samples[clients];
+            for (int i = 0; i < clients; i++) {
+                samples[i] = new Samples();
+            }
+        }
+
+        String format(String mode, int clients, int op, Duration duration) {
+            long[] all = Arrays.stream(samples)
+                    .flatMapToLong(client -> Arrays.stream(client.nanos[op], 0, client.counts[op]))
+                    .sorted().toArray();
+            long errors = Arrays.stream(samples).mapToLong(client -> client.errors[op]).sum();
+            return String.format("%-9s %7d %-7s %10.0f %9.1f %9.1f %9.1f %8d",
+                    mode, clients, OPERATIONS[op], all.length / (double) duration.toSeconds(),
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0), errors);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
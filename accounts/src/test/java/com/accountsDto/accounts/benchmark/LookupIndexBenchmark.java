@@ -0,0 +1,101 @@
+package com.accountsDto.accounts.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Seek vs scan latency of the two hot lookups in AccountsServiceImpl, measured on the shipped schema.sql.
+ * With indexed=false the secondary indexes are dropped after the schema is applied, which reproduces the
+ * original full table scans.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LookupIndexBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LookupIndexBenchmark {
+
+    private static final long FIRST_MOBILE_NUMBER = 1000000000L;
+
+    @Param({"1000000", "10000000"})
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private Connection connection;
+    private PreparedStatement findByMobileNumber;
+    private PreparedStatement findByCustomerId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:lookup_" + rows + "_" + indexed + ";DB_CLOSE_DELAY=-1", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : readSchema().split(";")) {
+                if (!sql.isBlank()) {
+                    statement.execute(sql);
+                }
+            }
+            if (!indexed) {
+                statement.execute("DROP INDEX IF EXISTS ux_customer_mobile_number");
+                statement.execute("DROP INDEX IF EXISTS ix_accounts_customer_id");
+            }
+            statement.execute("INSERT INTO customer (customer_id, name, email, mobile_number, created_at, created_by) "
+                    + "SELECT X, 'Customer ' || X, 'customer' || X || '@bank.com', CAST(" + FIRST_MOBILE_NUMBER + " + X AS VARCHAR), "
+                    + "CURRENT_DATE, 'BENCHMARK' FROM SYSTEM_RANGE(1, " + rows + ")");
+            statement.execute("INSERT INTO accounts (customer_id, account_number, account_type, branch_address, created_at, created_by) "
+                    + "SELECT customer_id, NEXT VALUE FOR account_number_seq, 'Savings', '123 Main Street, New York', CURRENT_DATE, 'BENCHMARK' FROM customer");
+            statement.execute("ANALYZE");
+        }
+        findByMobileNumber = connection.prepareStatement("SELECT customer_id, name, email, mobile_number FROM customer WHERE mobile_number = ?");
+        findByCustomerId = connection.prepareStatement("SELECT account_number, account_type, branch_address FROM accounts WHERE customer_id = ?");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public long findByMobileNumber() throws SQLException {
+        findByMobileNumber.setString(1, Long.toString(FIRST_MOBILE_NUMBER + randomRow()));
+        try (ResultSet resultSet = findByMobileNumber.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    @Benchmark
+    public long findByCustomerId() throws SQLException {
+        findByCustomerId.setLong(1, randomRow());
+        try (ResultSet resultSet = findByCustomerId.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : -1;
+        }
+    }
+
+    private long randomRow() {
+        return ThreadLocalRandom.current().nextLong(1, rows + 1L);
+    }
+
+    private static String readSchema() throws IOException {
+        try (InputStream in = LookupIndexBenchmark.class.getResourceAsStream("/schema.sql")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
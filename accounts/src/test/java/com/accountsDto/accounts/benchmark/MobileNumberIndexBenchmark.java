@@ -0,0 +1,84 @@
+package com.accountsDto.accounts.benchmark;
+
+import com.accountsDto.accounts.index.MobileNumberIndex;
+import com.accountsDto.accounts.index.OffHeapLongLongMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Lookup cost of the off-heap mobile number index (encoding the string included) against a HashMap<String, Long>
+ * with the same entries, for numbers that are registered and numbers that are not. Probes are pre-built strings in
+ * random order, so both sides miss the CPU caches the way real lookups do; their String hash codes are cached after
+ * the first round, which favours the HashMap over fresh request parameters. Run with -prof gc to compare the GC
+ * work: the HashMap keeps three heap objects per entry, the index none.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="MobileNumberIndexBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MobileNumberIndexBenchmark {
+
+    private static final long FIRST_MOBILE_NUMBER = 1000000000L;
+    private static final int PROBES = 1 << 20;
+
+    @Param({"1000000", "10000000"})
+    private int entries;
+
+    private OffHeapLongLongMap index;
+    private Map<String, Long> hashMap;
+    private String[] hits;
+    private String[] misses;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new OffHeapLongLongMap(entries);
+        hashMap = new HashMap<>();
+        // every other number is registered, so misses fall between hits instead of outside the key range
+        for (int i = 0; i < entries; i++) {
+            String mobileNumber = Long.toString(FIRST_MOBILE_NUMBER + 2L * i);
+            index.put(MobileNumberIndex.encode(mobileNumber), i + 1);
+            hashMap.put(mobileNumber, i + 1L);
+        }
+        Random random = new Random(42);
+        hits = new String[PROBES];
+        misses = new String[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            long registered = FIRST_MOBILE_NUMBER + 2L * random.nextInt(entries);
+            hits[i] = Long.toString(registered);
+            misses[i] = Long.toString(registered + 1);
+        }
+    }
+
+    @Benchmark
+    public long offHeapHit() {
+        return index.get(MobileNumberIndex.encode(hits[nextProbe()]));
+    }
+
+    @Benchmark
+    public Long hashMapHit() {
+        return hashMap.get(hits[nextProbe()]);
+    }
+
+    @Benchmark
+    public long offHeapMiss() {
+        return index.get(MobileNumberIndex.encode(misses[nextProbe()]));
+    }
+
+    @Benchmark
+    public Long hashMapMiss() {
+        return hashMap.get(misses[nextProbe()]);
+    }
+
+    private int nextProbe() {
+        return next++ & (PROBES - 1);
+    }
+}
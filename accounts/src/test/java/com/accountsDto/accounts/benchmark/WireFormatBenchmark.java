@@ -0,0 +1,103 @@
+package com.accountsDto.accounts.benchmark;
+
+import com.accountsDto.accounts.dto.CardsDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.dto.LoansDto;
+import com.accountsDto.accounts.mapper.CustomerMapper;
+import com.accountsDto.accounts.projection.CustomerAccountsView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Serialization cost of the DTOs exchanged between the services in each encoding the controllers can produce, with
+ * every ObjectMapper configured the way BinaryEncodingConfig and Spring Boot build them. The encoded size of each DTO
+ * is printed before the first iteration; run it with the GC profiler to see bytes allocated per operation as well.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="WireFormatBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class WireFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectMapper objectMapper;
+    private CustomerDto customerDto;
+    private CardsDto cardsDto;
+    private LoansDto loansDto;
+    private byte[] customerBytes;
+    private byte[] cardsBytes;
+    private byte[] loansBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile" -> Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        customerDto = CustomerMapper.mapToCustomerDto(new CustomerAccountsView(1L, "Jordi D", "jordi@bank.com",
+                "1234567890", 3L, 1900000000L, "Savings", "123 Main Street, New York", 1L), new CustomerDto());
+        cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("1234567890");
+        cardsDto.setCardNumber("100646930341");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+        loansDto = new LoansDto();
+        loansDto.setMobileNumber("1234567890");
+        loansDto.setLoanNumber("548732457654");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+        customerBytes = objectMapper.writeValueAsBytes(customerDto);
+        cardsBytes = objectMapper.writeValueAsBytes(cardsDto);
+        loansBytes = objectMapper.writeValueAsBytes(loansDto);
+        System.out.printf("%n%s bytes: CustomerDto %d, CardsDto %d, LoansDto %d%n",
+                format, customerBytes.length, cardsBytes.length, loansBytes.length);
+    }
+
+    @Benchmark
+    public byte[] writeCustomer() throws IOException {
+        return objectMapper.writeValueAsBytes(customerDto);
+    }
+
+    @Benchmark
+    public CustomerDto readCustomer() throws IOException {
+        return objectMapper.readValue(customerBytes, CustomerDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeCards() throws IOException {
+        return objectMapper.writeValueAsBytes(cardsDto);
+    }
+
+    @Benchmark
+    public CardsDto readCards() throws IOException {
+        return objectMapper.readValue(cardsBytes, CardsDto.class);
+    }
+
+    @Benchmark
+    public byte[] writeLoans() throws IOException {
+        return objectMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public LoansDto readLoans() throws IOException {
+        return objectMapper.readValue(loansBytes, LoansDto.class);
+    }
+}
@@ -3,13 +3,22 @@ package com.accountsDto.accounts.controller;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 import com.accountsDto.accounts.constants.AccountsConstants;
 import com.accountsDto.accounts.dto.AccountsContactInfoDto;
+import com.accountsDto.accounts.dto.AccountsDto;
+import com.accountsDto.accounts.dto.AccountsPageDto;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
+import com.accountsDto.accounts.dto.CustomerDetailsDto;
 import com.accountsDto.accounts.dto.CustomerDto;
 import com.accountsDto.accounts.dto.ResponseDto;
+import com.accountsDto.accounts.importer.CustomerImportJob;
 import com.accountsDto.accounts.service.IAccountsService;
+import com.accountsDto.accounts.service.ICustomerDetailsService;
+import com.accountsDto.accounts.service.ICustomerImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -22,7 +31,16 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
 
 @Tag(name = "CRUD REST APIs for Accounts in bank", description = "CRUD operations for accounts")
 public class AccountsControllerTest {
@@ -30,6 +48,12 @@ public class AccountsControllerTest {
     @Mock
     private IAccountsService iAccountsService;
 
+    @Mock
+    private ICustomerImportService iCustomerImportService;
+
+    @Mock
+    private ICustomerDetailsService iCustomerDetailsService;
+
     @Mock
     private AccountsContactInfoDto accountsContactInfoDto;
 
@@ -39,6 +63,7 @@ public class AccountsControllerTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(accountsController, "objectMapper", new ObjectMapper());
     }
 
     @Test
@@ -86,6 +111,47 @@ public class AccountsControllerTest {
         verify(iAccountsService, times(1)).createAccount(customerDto);
     }
 
+    @Test
+    @Operation(summary = "Create accounts in batch", description = "Endpoint to create accounts for many customers in one call.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Batch processed, per-row results returned"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error", content = @Content(schema = @Schema(implementation = ResponseDto.class)))
+    })
+    public void testCreateAccounts_Success() {
+        List<CustomerDto> customerDtos = List.of(new CustomerDto(), new CustomerDto());
+        List<CreateAccountResultDto> results = List.of(
+                new CreateAccountResultDto("1234567890", AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201),
+                new CreateAccountResultDto("1234567890", AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_DUPLICATE_IN_REQUEST));
+        when(iAccountsService.createAccounts(anyList())).thenReturn(results);
+
+        ResponseEntity<List<CreateAccountResultDto>> response = accountsController.createAccounts(customerDtos);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(results, response.getBody());
+
+        verify(iAccountsService, times(1)).createAccounts(customerDtos);
+    }
+
+    @Test
+    @Operation(summary = "Import customers", description = "Endpoint to start a bulk customer import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started")
+    })
+    public void testImportCustomers_Accepted() {
+        CustomerImportJob job = new CustomerImportJob("job-1", "partner.csv", 1024, 4);
+        when(iCustomerImportService.startImport(anyString())).thenReturn(job);
+
+        ResponseEntity<ResponseDto> response = accountsController.importCustomers("partner.csv");
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+        assertEquals(AccountsConstants.STATUS_202, response.getBody().getStatusCode());
+        assertEquals(AccountsConstants.MESSAGE_202_IMPORT + "job-1", response.getBody().getStatusMsg());
+
+        verify(iCustomerImportService, times(1)).startImport("partner.csv");
+    }
+
     @Test
     @Operation(summary = "Fetch account details", description = "Endpoint to fetch account details for a customer.")
     @ApiResponses(value = {
@@ -97,7 +163,7 @@ public class AccountsControllerTest {
         CustomerDto customerDto = new CustomerDto();
         when(iAccountsService.fetchAccount(anyString())).thenReturn(customerDto);
 
-        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber);
+        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -106,6 +172,42 @@ public class AccountsControllerTest {
         verify(iAccountsService, times(1)).fetchAccount(mobileNumber);
     }
 
+    @Test
+    @Operation(summary = "Fetch unchanged account details", description = "Endpoint to answer a conditional fetch without the details.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "304", description = "Account details not modified")
+    })
+    public void testFetchAccountDetails_NotModified() {
+        String mobileNumber = "1234567890";
+        when(iAccountsService.fetchAccountVersion(mobileNumber)).thenReturn("7.3.1");
+
+        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber, "\"7.2.1\", W/\"7.3.1\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"7.3.1\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(iAccountsService, never()).fetchAccount(anyString());
+    }
+
+    @Test
+    @Operation(summary = "Fetch changed account details", description = "Endpoint to answer a conditional fetch whose ETag is stale.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account details fetched successfully", content = @Content(schema = @Schema(implementation = CustomerDto.class)))
+    })
+    public void testFetchAccountDetails_Modified() {
+        String mobileNumber = "1234567890";
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setVersion("7.4.1");
+        when(iAccountsService.fetchAccountVersion(mobileNumber)).thenReturn("7.4.1");
+        when(iAccountsService.fetchAccount(mobileNumber)).thenReturn(customerDto);
+
+        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber, "\"7.3.1\"");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"7.4.1\"", response.getHeaders().getETag());
+        assertSame(customerDto, response.getBody());
+    }
+
     @Test
     @Operation(summary = "Fetch account details unsuccessfully", description = "Endpoint to handle errors when fetching account details.")
     @ApiResponses(value = {
@@ -116,7 +218,7 @@ public class AccountsControllerTest {
         String mobileNumber = "1234567890";
         when(iAccountsService.fetchAccount(anyString())).thenReturn(null);
 
-        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber);
+        ResponseEntity<CustomerDto> response = accountsController.fetchAccountDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -125,6 +227,26 @@ public class AccountsControllerTest {
         verify(iAccountsService, times(1)).fetchAccount(mobileNumber);
     }
 
+    @Test
+    @Operation(summary = "Fetch customer details", description = "Endpoint to fetch customer, account, cards and loans details in one call.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customer details fetched successfully", content = @Content(schema = @Schema(implementation = CustomerDetailsDto.class)))
+    })
+    public void testFetchCustomerDetails_Success() {
+        String mobileNumber = "1234567890";
+        CustomerDetailsDto customerDetailsDto = new CustomerDetailsDto();
+        customerDetailsDto.setMobileNumber(mobileNumber);
+        when(iCustomerDetailsService.fetchCustomerDetails(anyString())).thenReturn(customerDetailsDto);
+
+        ResponseEntity<CustomerDetailsDto> response = accountsController.fetchCustomerDetails(mobileNumber);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(customerDetailsDto, response.getBody());
+
+        verify(iCustomerDetailsService, times(1)).fetchCustomerDetails(mobileNumber);
+    }
+
     @Test
     @Operation(summary = "Update account details", description = "Endpoint to update account details.")
     @ApiResponses(value = {
@@ -135,7 +257,7 @@ public class AccountsControllerTest {
         CustomerDto customerDto = new CustomerDto();
         when(iAccountsService.updateAccount(any(CustomerDto.class))).thenReturn(true);
 
-        ResponseEntity<ResponseDto> response = accountsController.updateAccountDetails(customerDto);
+        ResponseEntity<ResponseDto> response = accountsController.updateAccountDetails(customerDto, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -145,6 +267,44 @@ public class AccountsControllerTest {
         verify(iAccountsService, times(1)).updateAccount(customerDto);
     }
 
+    @Test
+    @Operation(summary = "Update account details with If-Match", description = "Endpoint to update account details guarded by an ETag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Account details updated successfully", content = @Content(schema = @Schema(implementation = ResponseDto.class)))
+    })
+    public void testUpdateAccountDetails_IfMatch() {
+        CustomerDto customerDto = new CustomerDto();
+        when(iAccountsService.updateAccount(any(CustomerDto.class))).thenAnswer(invocation -> {
+            CustomerDto updated = invocation.getArgument(0);
+            assertEquals("3.1", updated.getVersion());
+            updated.setVersion("4.1");
+            return true;
+        });
+
+        ResponseEntity<ResponseDto> response = accountsController.updateAccountDetails(customerDto, "W/\"3.1\"");
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"4.1\"", response.getHeaders().getETag());
+
+        verify(iAccountsService, times(1)).updateAccount(customerDto);
+    }
+
+    @Test
+    @Operation(summary = "Update account details with a malformed If-Match", description = "Endpoint to reject an If-Match value that is not an entity tag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "400", description = "If-Match is not an entity tag")
+    })
+    public void testUpdateAccountDetails_UnquotedIfMatchRejected() {
+        CustomerDto customerDto = new CustomerDto();
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> accountsController.updateAccountDetails(customerDto, "3.1"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        verify(iAccountsService, never()).updateAccount(any(CustomerDto.class));
+    }
+
     @Test
     @Operation(summary = "Update account details unsuccessfully", description = "Endpoint to handle errors during account update.")
     @ApiResponses(value = {
@@ -154,7 +314,7 @@ public class AccountsControllerTest {
         CustomerDto customerDto = new CustomerDto();
         when(iAccountsService.updateAccount(any(CustomerDto.class))).thenReturn(false);
 
-        ResponseEntity<ResponseDto> response = accountsController.updateAccountDetails(customerDto);
+        ResponseEntity<ResponseDto> response = accountsController.updateAccountDetails(customerDto, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -204,4 +364,99 @@ public class AccountsControllerTest {
 
         verify(iAccountsService, times(1)).deleteAccount(mobileNumber);
     }
+
+    @Test
+    @Operation(summary = "Delete accounts in batch", description = "Endpoint to delete the accounts of many customers in one call.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Accounts deleted successfully", content = @Content(schema = @Schema(implementation = ResponseDto.class)))
+    })
+    public void testDeleteAccounts_Success() {
+        List<String> mobileNumbers = List.of("1234567890", "1234567891");
+        when(iAccountsService.deleteAccounts(anyList())).thenReturn(2);
+
+        ResponseEntity<ResponseDto> response = accountsController.deleteAccounts(mobileNumbers);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(AccountsConstants.STATUS_200, response.getBody().getStatusCode());
+        assertEquals(AccountsConstants.MESSAGE_200_DELETED + 2, response.getBody().getStatusMsg());
+
+        verify(iAccountsService, times(1)).deleteAccounts(mobileNumbers);
+    }
+
+    @Test
+    @Operation(summary = "Export accounts as NDJSON", description = "Endpoint to stream every account as one JSON document per line.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Accounts streamed successfully")
+    })
+    public void testExportAccounts_Ndjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CustomerDto> consumer = invocation.getArgument(0);
+            consumer.accept(exportedCustomer("1234567890", "Jordi D"));
+            consumer.accept(exportedCustomer("1234567891", "Jordi E"));
+            return null;
+        }).when(iAccountsService).exportAccounts(any());
+
+        ResponseEntity<StreamingResponseBody> response = accountsController.exportAccounts("ndjson");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"name\":\"Jordi D\""));
+        assertTrue(lines[1].contains("\"mobileNumber\":\"1234567891\""));
+    }
+
+    @Test
+    @Operation(summary = "Export accounts as CSV", description = "Endpoint to stream every account as a CSV row.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Accounts streamed successfully")
+    })
+    public void testExportAccounts_Csv() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CustomerDto> consumer = invocation.getArgument(0);
+            consumer.accept(exportedCustomer("1234567890", "Diéguez, Jordi"));
+            return null;
+        }).when(iAccountsService).exportAccounts(any());
+
+        ResponseEntity<StreamingResponseBody> response = accountsController.exportAccounts("csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.parseMediaType(AccountsConstants.TEXT_CSV_VALUE), response.getHeaders().getContentType());
+        assertEquals("name,email,mobileNumber,accountNumber,accountType,branchAddress\n"
+                        + "\"Diéguez, Jordi\",a@b.com,1234567890,1900000000,Savings,\"123 Main Street, New York\"\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @Operation(summary = "List accounts", description = "Endpoint to browse accounts a page at a time.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page returned successfully")
+    })
+    public void testListAccounts_Success() {
+        AccountsPageDto page = new AccountsPageDto(List.of(), 1900000049L);
+        when(iAccountsService.listAccounts("Savings", null, 1900000000L, 50)).thenReturn(page);
+
+        ResponseEntity<AccountsPageDto> response = accountsController.listAccounts("Savings", null, 1900000000L, 50);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(page, response.getBody());
+    }
+
+    private static CustomerDto exportedCustomer(String mobileNumber, String name) {
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(1900000000L);
+        accountsDto.setAccountType(AccountsConstants.SAVINGS);
+        accountsDto.setBranchAddress(AccountsConstants.ADDRESS);
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(name);
+        customerDto.setEmail("a@b.com");
+        customerDto.setMobileNumber(mobileNumber);
+        customerDto.setAccountsDto(accountsDto);
+        return customerDto;
+    }
 }
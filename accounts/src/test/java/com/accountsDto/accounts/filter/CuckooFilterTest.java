@@ -0,0 +1,71 @@
+package com.accountsDto.accounts.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CuckooFilterTest {
+
+    private static final int ITEMS = 100_000;
+
+    @Test
+    public void testAddAndRemove_NoFalseNegativesAndFewFalsePositives() {
+        CuckooFilter filter = new CuckooFilter(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            assertTrue(filter.add(hash(i)));
+        }
+        assertEquals(ITEMS, filter.size());
+        for (int i = 0; i < ITEMS; i++) {
+            assertTrue(filter.mightContain(hash(i)));
+        }
+        assertTrue(falsePositiveRate(filter) < 0.001);
+
+        for (int i = 0; i < ITEMS; i += 2) {
+            assertTrue(filter.remove(hash(i)));
+        }
+        assertEquals(ITEMS / 2, filter.size());
+        int stillReported = 0;
+        for (int i = 0; i < ITEMS; i++) {
+            if (i % 2 == 1) {
+                assertTrue(filter.mightContain(hash(i)));
+            } else if (filter.mightContain(hash(i))) {
+                stillReported++;
+            }
+        }
+        assertTrue(stillReported < ITEMS / 1000);
+    }
+
+    @Test
+    public void testAdd_FullFilterRejectsUntilRemoval() {
+        CuckooFilter filter = new CuckooFilter(1000);
+        int added = 0;
+        while (filter.add(hash(added))) {
+            added++;
+        }
+        assertTrue(added >= 1000);
+        for (int i = 0; i < added; i++) {
+            assertTrue(filter.mightContain(hash(i)));
+        }
+        assertFalse(filter.add(hash(added)));
+
+        for (int i = 0; i < added; i += 10) {
+            assertTrue(filter.remove(hash(i)));
+        }
+        assertTrue(filter.add(hash(added)));
+        assertTrue(filter.mightContain(hash(added)));
+    }
+
+    private static double falsePositiveRate(CuckooFilter filter) {
+        int falsePositives = 0;
+        for (int i = ITEMS; i < 2 * ITEMS; i++) {
+            if (filter.mightContain(hash(i))) {
+                falsePositives++;
+            }
+        }
+        return (double) falsePositives / ITEMS;
+    }
+
+    private static long hash(int item) {
+        return MobileNumberFilter.hash(Long.toString(1000000000L + item));
+    }
+}
@@ -0,0 +1,44 @@
+package com.accountsDto.accounts.importer;
+
+import com.accountsDto.accounts.dto.CustomerDto;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CustomerCsvParserTest {
+
+    @Test
+    public void testNext_PlainAndQuotedFields() {
+        CustomerCsvParser parser = parser("Jordi D,jordi@bank.com,1234567890\r\n"
+                + "\"Diéguez, \"\"Jordi\"\"\",jordi@bank.com,1234567891,1900000000,Savings,\"123 Main Street, New York\"\n"
+                + "\n"
+                + "Last Row,last@bank.com,1234567892");
+
+        assertRow(parser.next(), "Jordi D", "jordi@bank.com", "1234567890");
+        assertRow(parser.next(), "Diéguez, \"Jordi\"", "jordi@bank.com", "1234567891");
+        assertRow(parser.next(), "Last Row", "last@bank.com", "1234567892");
+        assertNull(parser.next());
+    }
+
+    @Test
+    public void testNext_ShortRowLeavesMissingFieldsNull() {
+        CustomerCsvParser parser = parser("Jordi D,jordi@bank.com\n");
+
+        assertRow(parser.next(), "Jordi D", "jordi@bank.com", null);
+        assertNull(parser.next());
+    }
+
+    private static CustomerCsvParser parser(String csv) {
+        return new CustomerCsvParser(ByteBuffer.wrap(csv.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static void assertRow(CustomerDto customerDto, String name, String email, String mobileNumber) {
+        assertNotNull(customerDto);
+        assertEquals(name, customerDto.getName());
+        assertEquals(email, customerDto.getEmail());
+        assertEquals(mobileNumber, customerDto.getMobileNumber());
+    }
+}
@@ -0,0 +1,81 @@
+package com.accountsDto.accounts.index;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapLongLongMapTest {
+
+    @Test
+    public void testPutGetRemove_MatchesHashMapWhileGrowing() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(0);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = 1000000000L + random.nextInt(50_000);
+            if (random.nextInt(3) == 0) {
+                long value = expected.getOrDefault(key, -1L);
+                assertEquals(expected.remove(key, value), map.remove(key, value));
+            } else {
+                long value = random.nextInt(1_000_000);
+                expected.put(key, value);
+                map.put(key, value);
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (long key = 1000000000L; key < 1000050000L; key++) {
+            Long value = expected.get(key);
+            assertEquals(value == null ? OffHeapLongLongMap.NO_VALUE : value, map.get(key));
+        }
+    }
+
+    @Test
+    public void testRemove_OnlyWhenMappedToExpectedValue() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(16);
+        map.put(1234567890L, 7L);
+
+        assertFalse(map.remove(1234567890L, 8L));
+        assertEquals(7L, map.get(1234567890L));
+        assertTrue(map.remove(1234567890L, 7L));
+        assertEquals(OffHeapLongLongMap.NO_VALUE, map.get(1234567890L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void testPut_RefusedPastCapacity() {
+        OffHeapLongLongMap map = new OffHeapLongLongMap(0, 64);
+        int capacity = 0;
+        while (map.put(1000000000L + capacity, capacity)) {
+            capacity++;
+        }
+
+        assertEquals(44, capacity);
+        assertEquals(capacity, map.size());
+        assertEquals(64 * 16, map.memoryBytes());
+        assertFalse(map.put(2000000000L, 1L));
+        assertEquals(OffHeapLongLongMap.NO_VALUE, map.get(2000000000L));
+        for (int i = 0; i < capacity; i++) {
+            assertEquals(i, map.get(1000000000L + i));
+        }
+
+        assertTrue(map.put(1000000000L, 99L));
+        assertEquals(99L, map.get(1000000000L));
+        assertTrue(map.remove(1000000001L, 1L));
+        assertTrue(map.put(2000000000L, 1L));
+        assertEquals(capacity, map.size());
+    }
+
+    @Test
+    public void testEncode_OnlyTenDigitNumbers() {
+        assertEquals(1234567890L, MobileNumberIndex.encode("1234567890"));
+        assertEquals(123456789L, MobileNumberIndex.encode("0123456789"));
+        assertEquals(-1, MobileNumberIndex.encode("123456789"));
+        assertEquals(-1, MobileNumberIndex.encode("12345678a0"));
+        assertEquals(-1, MobileNumberIndex.encode(null));
+    }
+}
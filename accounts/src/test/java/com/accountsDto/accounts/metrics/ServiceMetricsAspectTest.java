@@ -0,0 +1,49 @@
+package com.accountsDto.accounts.metrics;
+
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.exception.CustomerAlreadyExistsException;
+import com.accountsDto.accounts.exception.ResourceNotFoundException;
+import com.accountsDto.accounts.service.IAccountsService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ServiceMetricsAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IAccountsService target = mock(IAccountsService.class);
+    private final IAccountsService iAccountsService = proxy(target);
+
+    @Test
+    public void testInvocations_AreTimedByOutcome() {
+        when(target.fetchAccount("1234567890")).thenReturn(new CustomerDto());
+        when(target.fetchAccount("0000000000")).thenThrow(new ResourceNotFoundException("Customer", "mobileNumber", "0000000000"));
+        doThrow(new CustomerAlreadyExistsException("exists")).when(target).createAccount(any());
+
+        iAccountsService.fetchAccount("1234567890");
+        assertThrows(ResourceNotFoundException.class, () -> iAccountsService.fetchAccount("0000000000"));
+        assertThrows(CustomerAlreadyExistsException.class, () -> iAccountsService.createAccount(new CustomerDto()));
+
+        assertEquals(1, timer("fetchAccount", "success").count());
+        assertEquals(1, timer("fetchAccount", "not-found").count());
+        assertEquals(1, timer("createAccount", "conflict").count());
+        assertEquals("ResourceNotFoundException", timer("fetchAccount", "not-found").getId().getTag("exception"));
+        assertEquals("none", timer("fetchAccount", "success").getId().getTag("exception"));
+    }
+
+    private Timer timer(String method, String outcome) {
+        return meterRegistry.get(ServiceMetricsAspect.METRIC_NAME).tag("method", method).tag("outcome", outcome).timer();
+    }
+
+    private IAccountsService proxy(IAccountsService target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addInterface(IAccountsService.class);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        return proxyFactory.getProxy();
+    }
+}
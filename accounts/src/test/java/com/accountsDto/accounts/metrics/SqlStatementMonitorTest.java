@@ -0,0 +1,73 @@
+package com.accountsDto.accounts.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlStatementMonitorTest {
+
+    private static final String SELECT_BY_ID = "SELECT name FROM customer WHERE customer_id = ?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SqlStatementMonitor monitor = new SqlStatementMonitor(meterRegistry,
+            new DefaultListableBeanFactory().getBeanProvider(EntityManagerFactory.class), 1.0, Duration.ofSeconds(10), 3);
+
+    @Test
+    public void testStatements_AreTimedWithRowsAndRepeatedSelectsFlagged() throws Exception {
+        DataSource dataSource = timedDataSource();
+        monitor.beginRequest();
+        try (Connection connection = dataSource.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE TABLE customer (customer_id INT PRIMARY KEY, name VARCHAR(100))");
+                assertEquals(2, statement.executeUpdate("INSERT INTO customer VALUES (1, 'Jordi'), (2, 'Ana')"));
+            }
+            for (int id = 1; id <= 3; id++) {
+                try (PreparedStatement select = connection.prepareStatement(SELECT_BY_ID)) {
+                    select.setInt(1, id);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        while (resultSet.next()) {
+                            assertNotNull(resultSet.getString(1));
+                        }
+                    }
+                }
+            }
+        } finally {
+            monitor.endRequest("GET /api/fetch");
+        }
+
+        SqlStatementMonitor.SqlReport report = monitor.sql();
+        assertEquals(5, meterRegistry.timer("jdbc.statements").count());
+        SqlStatementMonitor.StatementReport select = report.slowestStatements().stream()
+                .filter(statement -> statement.sql().equals(SELECT_BY_ID)).findFirst().orElseThrow();
+        assertEquals(3, select.executions());
+        assertEquals(2, select.rows());
+        assertEquals(1, report.nPlusOne().size());
+        assertEquals("GET /api/fetch", report.nPlusOne().get(0).request());
+        assertEquals(3, report.nPlusOne().get(0).maxExecutions());
+        assertEquals(1, meterRegistry.counter("jdbc.requests.n-plus-one").count());
+        assertEquals(false, report.hibernate().get("enabled"));
+
+        monitor.reset();
+        assertTrue(monitor.sql().slowestStatements().isEmpty());
+    }
+
+    private DataSource timedDataSource() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:sql_monitor;DB_CLOSE_DELAY=-1");
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("sqlStatementMonitor", monitor);
+        return (DataSource) new SqlTimingDataSourcePostProcessor(beanFactory.getBeanProvider(SqlStatementMonitor.class))
+                .postProcessAfterInitialization(h2, "dataSource");
+    }
+}
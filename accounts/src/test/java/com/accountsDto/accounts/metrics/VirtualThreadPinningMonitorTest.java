@@ -0,0 +1,43 @@
+package com.accountsDto.accounts.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    public void testPinnedVirtualThread_IsRecordedWithItsSite() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+            while (meterRegistry.timer("jvm.threads.virtual.pinned").count() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertEquals(1, meterRegistry.timer("jvm.threads.virtual.pinned").count());
+            assertEquals(1, monitor.pinningSites().size());
+            assertTrue(monitor.pinningSites().get(0).site().startsWith(VirtualThreadPinningMonitorTest.class.getName() + ".sleepWhileHoldingLock"));
+        } finally {
+            monitor.close();
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+public class AccountCreateConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Test
+    public void testConcurrentDuplicateCreates_OneCreatedOthersBadRequest() throws Exception {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Concurrent Customer");
+        customerDto.setEmail("concurrent@bank.com");
+        customerDto.setMobileNumber("7200000001");
+        String body = objectMapper.writeValueAsString(customerDto);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return mockMvc.perform(post("/api/create").contentType(MediaType.APPLICATION_JSON).content(body)
+                            .accept(MediaType.APPLICATION_JSON)).andReturn().getResponse().getStatus();
+                }));
+            }
+            start.countDown();
+        }
+
+        List<Integer> statuses = new ArrayList<>();
+        for (Future<Integer> future : futures) {
+            statuses.add(future.get());
+        }
+        assertEquals(1, statuses.stream().filter(status -> status == HttpStatus.CREATED.value()).count(), statuses.toString());
+        assertEquals(THREADS - 1, statuses.stream().filter(status -> status == HttpStatus.BAD_REQUEST.value()).count(), statuses.toString());
+        assertEquals(customerDto.getMobileNumber(), iAccountsService.fetchAccount(customerDto.getMobileNumber()).getMobileNumber());
+    }
+}
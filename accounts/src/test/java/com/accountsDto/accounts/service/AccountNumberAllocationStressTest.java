@@ -0,0 +1,86 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.entity.Accounts;
+import com.accountsDto.accounts.repository.AccountsRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/*
+ * Asserts uniqueness and the number of sequence blocks drawn, not throughput: every create runs on a virtual thread of
+ * its own, as with VIRTUAL_THREADS_ENABLED, so an allocator that kept a block per thread would draw one per create.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class AccountNumberAllocationStressTest {
+
+    private static final int CONCURRENT_CREATES = 16;
+    private static final int CREATES = 4000;
+    private static final int BLOCK_SIZE = 50;
+    private static final long FIRST_MOBILE_NUMBER = 7000000000L;
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testConcurrentCreates_AllocateUniqueAccountNumbersFromSharedBlocks() throws Exception {
+        long accountsBefore = accountsRepository.count();
+        long sequenceBefore = sequenceValue();
+        Semaphore permits = new Semaphore(CONCURRENT_CREATES);
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CREATES; i++) {
+                long mobileNumber = FIRST_MOBILE_NUMBER + i;
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        iAccountsService.createAccount(newCustomer(mobileNumber));
+                    } finally {
+                        permits.release();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        List<Long> accountNumbers = accountsRepository.findAll().stream().map(Accounts::getAccountNumber).toList();
+        assertEquals(accountsBefore + CREATES, accountNumbers.size(), "every create must insert, never merge into an existing account");
+        assertEquals(accountNumbers.size(), Set.copyOf(accountNumbers).size());
+        assertTrue(accountNumbers.stream().allMatch(number -> number >= 1900000000L && number <= 9999999999L));
+        assertTrue(sequenceValue() - sequenceBefore <= (CREATES / BLOCK_SIZE + 2) * BLOCK_SIZE,
+                "blocks must be shared between threads, not drawn per thread");
+    }
+
+    private long sequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "SELECT base_value FROM information_schema.sequences WHERE sequence_name = 'ACCOUNT_NUMBER_SEQ'", Long.class);
+    }
+
+    private static CustomerDto newCustomer(long mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Stress " + mobileNumber);
+        customerDto.setEmail("stress" + mobileNumber + "@bank.com");
+        customerDto.setMobileNumber(Long.toString(mobileNumber));
+        return customerDto;
+    }
+}
@@ -0,0 +1,41 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.constants.AccountsConstants;
+import com.accountsDto.accounts.dto.CreateAccountResultDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class CreateAccountsBatchTest {
+
+    @Autowired
+    private IAccountsService iAccountsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testCreateAccounts_RejectsNullAndRepeatedRows() {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Batch Customer");
+        customerDto.setEmail("batch@bank.com");
+        customerDto.setMobileNumber("7100000001");
+
+        List<CreateAccountResultDto> results = iAccountsService.createAccounts(Arrays.asList(customerDto, null, customerDto));
+
+        assertEquals(AccountsConstants.STATUS_201, results.get(0).getStatusCode());
+        assertEquals(AccountsConstants.STATUS_400, results.get(1).getStatusCode());
+        assertEquals(AccountsConstants.MESSAGE_400_NULL_ROW, results.get(1).getStatusMsg());
+        assertEquals(AccountsConstants.STATUS_400, results.get(2).getStatusCode());
+        assertEquals("BIGINT", jdbcTemplate.queryForObject("SELECT data_type FROM information_schema.columns "
+                + "WHERE table_name = 'ACCOUNTS' AND column_name = 'CUSTOMER_ID'", String.class));
+    }
+}
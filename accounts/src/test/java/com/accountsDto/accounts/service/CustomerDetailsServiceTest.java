@@ -0,0 +1,188 @@
+package com.accountsDto.accounts.service;
+
+import com.accountsDto.accounts.dto.AccountsDto;
+import com.accountsDto.accounts.dto.CustomerDetailsDto;
+import com.accountsDto.accounts.dto.CustomerDto;
+import com.accountsDto.accounts.exception.ResourceNotFoundException;
+import com.accountsDto.accounts.service.impl.CustomerDetailsServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/*
+ * Runs CustomerDetailsServiceImpl against stub cards and loans servers on ephemeral ports.
+ */
+public class CustomerDetailsServiceTest {
+
+    private static final String MOBILE_NUMBER = "1234567890";
+    private static final String CARD_JSON = "{\"mobileNumber\":\"1234567890\",\"cardNumber\":\"100646930341\",\"cardType\":\"Credit Card\","
+            + "\"totalLimit\":100000,\"amountUsed\":1000,\"availableAmount\":99000}";
+    private static final String LOAN_JSON = "{\"mobileNumber\":\"1234567890\",\"loanNumber\":\"548732457654\",\"loanType\":\"Home Loan\","
+            + "\"totalLoan\":100000,\"amountPaid\":1000,\"outstandingAmount\":99000}";
+
+    private final IAccountsService iAccountsService = mock(IAccountsService.class);
+    private final StubService cards = new StubService();
+    private final StubService loans = new StubService();
+    private HttpServer cardsServer;
+    private HttpServer loansServer;
+    private CustomerDetailsServiceImpl customerDetailsService;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        cardsServer = start(cards);
+        loansServer = start(loans);
+        customerDetailsService = new CustomerDetailsServiceImpl(iAccountsService, RestClient.builder(),
+                "http://localhost:" + cardsServer.getAddress().getPort(),
+                "http://localhost:" + loansServer.getAddress().getPort(),
+                Duration.ofMillis(500), Duration.ofMillis(2000), "application/cbor");
+        when(iAccountsService.fetchAccount(MOBILE_NUMBER)).thenReturn(customer());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        customerDetailsService.shutdown();
+        cardsServer.stop(0);
+        loansServer.stop(0);
+    }
+
+    @Test
+    public void testFetchCustomerDetails_CallsServicesConcurrently() {
+        cards.respond(200, CARD_JSON, 0);
+        loans.respond(200, LOAN_JSON, 0);
+        customerDetailsService.fetchCustomerDetails(MOBILE_NUMBER);
+        cards.respond(200, CARD_JSON, 800);
+        loans.respond(200, LOAN_JSON, 800);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto customerDetailsDto = customerDetailsService.fetchCustomerDetails(MOBILE_NUMBER);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("Jordi D", customerDetailsDto.getName());
+        assertEquals(1900000000L, customerDetailsDto.getAccountsDto().getAccountNumber());
+        assertEquals("100646930341", customerDetailsDto.getCardsDto().getCardNumber());
+        assertEquals(99000, customerDetailsDto.getLoansDto().getOutstandingAmount());
+        assertTrue(customerDetailsDto.getUnavailableServices().isEmpty());
+        assertTrue(elapsedMillis < 1600, "cards and loans must be called in parallel, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testFetchCustomerDetails_SlowServiceIsReportedUnavailable() {
+        cards.respond(200, CARD_JSON, 0);
+        loans.respond(200, LOAN_JSON, 6000);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto customerDetailsDto = customerDetailsService.fetchCustomerDetails(MOBILE_NUMBER);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertNotNull(customerDetailsDto.getCardsDto());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals(List.of("loans"), customerDetailsDto.getUnavailableServices());
+        assertTrue(elapsedMillis < 5000, "the timeout must cut the slow call short, took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    public void testFetchCustomerDetails_FailedAndMissingDetails() {
+        cards.respond(404, "{\"errorCode\":\"NOT_FOUND\"}", 0);
+        loans.respond(500, "{\"errorCode\":\"INTERNAL_SERVER_ERROR\"}", 0);
+
+        CustomerDetailsDto customerDetailsDto = customerDetailsService.fetchCustomerDetails(MOBILE_NUMBER);
+
+        assertNull(customerDetailsDto.getCardsDto());
+        assertNull(customerDetailsDto.getLoansDto());
+        assertEquals(List.of("loans"), customerDetailsDto.getUnavailableServices());
+    }
+
+    @Test
+    public void testFetchCustomerDetails_AsksForCbor() {
+        cards.respond(200, CARD_JSON, 0);
+        loans.respond(200, LOAN_JSON, 0);
+
+        CustomerDetailsDto customerDetailsDto = customerDetailsService.fetchCustomerDetails(MOBILE_NUMBER);
+
+        assertEquals("application/cbor", cards.contentType);
+        assertEquals("100646930341", customerDetailsDto.getCardsDto().getCardNumber());
+        assertEquals(99000, customerDetailsDto.getLoansDto().getOutstandingAmount());
+    }
+
+    @Test
+    public void testFetchCustomerDetails_UnknownCustomer() {
+        cards.respond(404, "{}", 0);
+        loans.respond(404, "{}", 0);
+        when(iAccountsService.fetchAccount("9999999999")).thenThrow(new ResourceNotFoundException("Customer", "mobileNumber", "9999999999"));
+
+        assertThrows(ResourceNotFoundException.class, () -> customerDetailsService.fetchCustomerDetails("9999999999"));
+    }
+
+    private static HttpServer start(StubService stub) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/fetch", stub::handle);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+        return server;
+    }
+
+    private static CustomerDto customer() {
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(1900000000L);
+        accountsDto.setAccountType("Savings");
+        accountsDto.setBranchAddress("123 Main Street, New York");
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Jordi D");
+        customerDto.setEmail("jordi@bank.com");
+        customerDto.setMobileNumber(MOBILE_NUMBER);
+        customerDto.setAccountsDto(accountsDto);
+        return customerDto;
+    }
+
+    // answers in CBOR when the client lists it first in Accept, like the real services
+    private static class StubService {
+
+        private volatile int status;
+        private volatile String body;
+        private volatile long delayMillis;
+        private volatile String contentType;
+
+        void respond(int status, String body, long delayMillis) {
+            this.status = status;
+            this.body = body;
+            this.delayMillis = delayMillis;
+        }
+
+        void handle(HttpExchange exchange) throws IOException {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            contentType = "application/json";
+            String accept = exchange.getRequestHeaders().getFirst("Accept");
+            if (accept != null && accept.startsWith("application/cbor")) {
+                bytes = new CBORMapper().writeValueAsBytes(new ObjectMapper().readTree(bytes));
+                contentType = "application/cbor";
+            }
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
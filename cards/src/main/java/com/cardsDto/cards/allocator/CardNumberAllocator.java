@@ -0,0 +1,93 @@
+package com.cardsDto.cards.allocator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Hands out card numbers that are unique by construction: an 11-digit payload from card_number_seq followed by its
+ * Luhn check digit, so no two cards can be given the same number and creating one needs no existence check. The
+ * sequence moves in steps of BLOCK_SIZE and each step is a block of payloads served from memory, so only one card in
+ * fifty costs a round trip. Payloads start at 10090000000, above the 100000000000..100899999999 range the old random
+ * generator drew full numbers from; numbers of a block left unused at shutdown are skipped, never reused.
+ */
+@Component
+public class CardNumberAllocator {
+
+    // must match INCREMENT BY of card_number_seq in schema.sql
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    public CardNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String next() {
+        while (true) {
+            Block current = block;
+            long payload = current.next.getAndIncrement();
+            if (payload < current.end) {
+                return number(payload);
+            }
+            refillLock.lock();
+            try {
+                if (block == current) {
+                    long start = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR card_number_seq", Long.class);
+                    block = new Block(start, start + BLOCK_SIZE);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the payload followed by its Luhn check digit
+     */
+    public static String number(long payload) {
+        return Long.toString(payload * 10 + luhnCheckDigit(payload));
+    }
+
+    /**
+     * @return the digit that makes the payload followed by it pass the Luhn check
+     */
+    public static int luhnCheckDigit(long payload) {
+        int sum = 0;
+        // the check digit takes the rightmost position, so doubling starts at the payload's last digit
+        for (boolean doubled = true; payload > 0; payload /= 10, doubled = !doubled) {
+            int digit = (int) (payload % 10);
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    public static boolean isLuhnValid(String number) {
+        if (number == null || number.length() < 2 || !number.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        long payload = Long.parseLong(number.substring(0, number.length() - 1));
+        return number.charAt(number.length() - 1) - '0' == luhnCheckDigit(payload);
+    }
+
+    private static final class Block {
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
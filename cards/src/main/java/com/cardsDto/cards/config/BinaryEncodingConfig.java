@@ -0,0 +1,30 @@
+package com.cardsDto.cards.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/*
+ * CBOR and Smile converters built from Spring Boot's Jackson builder, so binary bodies follow the same spring.jackson
+ * settings as JSON. They replace the converters Spring MVC adds by default when the dataformat libraries are present,
+ * in the same place after the JSON one: JSON still answers clients that accept anything, and only an explicit Accept
+ * or Content-Type of application/cbor or application/x-jackson-smile selects a binary encoding.
+ */
+@Configuration
+public class BinaryEncodingConfig {
+
+    // the builder bean is a prototype, so each converter gets its own
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
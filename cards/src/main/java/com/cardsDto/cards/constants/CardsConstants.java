@@ -18,5 +18,6 @@ public class CardsConstants {
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
     public static final String STATUS_400 ="400";
     public static final String MESSAGE_400_INVALID_MOBILE_NUMBER ="Invalidd...";
-
+    public static final int  BALANCE_UPDATE_ATTEMPTS = 3;
+    public static final String  APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 }
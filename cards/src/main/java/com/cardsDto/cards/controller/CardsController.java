@@ -1,6 +1,7 @@
 package com.cardsDto.cards.controller;
 
 import com.cardsDto.cards.constants.CardsConstants;
+import com.cardsDto.cards.dto.AuthorizationDto;
 import com.cardsDto.cards.dto.CardsContactInfoDto;
 import com.cardsDto.cards.dto.CardsDto;
 import com.cardsDto.cards.dto.ErrorResponseDto;
@@ -14,10 +15,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -29,7 +32,8 @@ import org.springframework.web.bind.annotation.*;
         description = "Crud Rest Apis in bank "
 )
 @RestController
-@RequestMapping(path="/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@RequestMapping(path="/api", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+        CardsConstants.APPLICATION_SMILE_VALUE})
 @Validated
 public class CardsController {
 
@@ -81,6 +85,10 @@ public class CardsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified; the If-None-Match ETag is still current"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -92,9 +100,43 @@ public class CardsController {
     )
     @GetMapping("/fetch")
     public ResponseEntity<CardsDto> fetchAccountDetails(@RequestParam @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                               String mobileNumber){
+                                                               String mobileNumber,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+    if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+        String version = iCardsService.fetchCardVersion(mobileNumber);
+        if (matchesETag(ifNoneMatch, version)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+        }
+    }
     CardsDto cardsDto=iCardsService.fetchCard(mobileNumber);
-    return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
+    ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+    if (cardsDto != null && cardsDto.getVersion() != null) {
+        response.eTag(cardsDto.getVersion());
+    }
+    return response.body(cardsDto);
+    }
+
+    // If-None-Match lists one or more entity-tags, compared weakly, or * for any current representation
+    private static boolean matchesETag(String header, String version) {
+        for (String etag : header.split(",")) {
+            if ("*".equals(etag.trim()) || version.equals(parseETag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // an entity-tag is an opaque value in double quotes, W/ in front when weak (RFC 9110 8.8.3); null for anything else
+    private static String parseETag(String etag) {
+        String candidate = etag.trim();
+        if (candidate.startsWith("W/")) {
+            candidate = candidate.substring(2);
+        }
+        if (candidate.length() < 2 || !candidate.startsWith("\"") || !candidate.endsWith("\"")) {
+            return null;
+        }
+        String opaque = candidate.substring(1, candidate.length() - 1);
+        return opaque.indexOf('"') < 0 ? opaque : null;
     }
 
     @Operation(
@@ -131,6 +173,142 @@ public class CardsController {
                     .body(new ResponseDto(CardsConstants.STATUS_417, CardsConstants.MESSAGE_417_UPDATE));
         }
     }
+    @Operation(
+            summary = "Authorize Card REST API",
+            description = "REST API to take an amount from the available amount of a card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity; the available amount is too low",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<AuthorizationDto> authorize(@RequestParam
+                                                      @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                      String cardNumber,
+                                                      @RequestParam
+                                                      @Positive(message = "Amount should be greater than zero")
+                                                      int amount) {
+        return ResponseEntity.status(HttpStatus.OK).body(iCardsService.authorize(cardNumber, amount));
+    }
+
+    @Operation(
+            summary = "Reverse Authorization REST API",
+            description = "REST API to give an authorized amount back to the available amount of a card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity; the amount is more than the amount used",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/reverse")
+    public ResponseEntity<AuthorizationDto> reverse(@RequestParam
+                                                    @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                    String cardNumber,
+                                                    @RequestParam
+                                                    @Positive(message = "Amount should be greater than zero")
+                                                    int amount) {
+        return ResponseEntity.status(HttpStatus.OK).body(iCardsService.reverse(cardNumber, amount));
+    }
+
+    @Operation(
+            summary = "Spend Card REST API",
+            description = "REST API to move an amount from the available amount to the amount used of a card in one statement"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity; the available amount is too low",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/spend")
+    public ResponseEntity<AuthorizationDto> spend(@RequestParam
+                                                  @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                  String cardNumber,
+                                                  @RequestParam
+                                                  @Positive(message = "Amount should be greater than zero")
+                                                  int amount) {
+        return ResponseEntity.status(HttpStatus.OK).body(iCardsService.spend(cardNumber, amount));
+    }
+
+    @Operation(
+            summary = "Repay Card REST API",
+            description = "REST API to move an amount from the amount used back to the available amount of a card in one statement"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity; the amount is more than the amount used",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/repay")
+    public ResponseEntity<AuthorizationDto> repay(@RequestParam
+                                                  @Pattern(regexp="(^$|[0-9]{12})",message = "CardNumber must be 12 digits")
+                                                  String cardNumber,
+                                                  @RequestParam
+                                                  @Positive(message = "Amount should be greater than zero")
+                                                  int amount) {
+        return ResponseEntity.status(HttpStatus.OK).body(iCardsService.repay(cardNumber, amount));
+    }
+
     @Operation(
             summary = "Delete Card Details REST API",
             description = "REST API to delete Card details based on a mobile number"
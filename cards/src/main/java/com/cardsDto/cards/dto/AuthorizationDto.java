@@ -0,0 +1,35 @@
+package com.cardsDto.cards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(
+        name = "Authorization",
+        description = "Schema to hold the balance of a card after an authorization, reversal, spend or repayment"
+)
+@Data @AllArgsConstructor @NoArgsConstructor
+public class AuthorizationDto {
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Amount taken from the available amount, negative when given back", example = "250"
+    )
+    private int amount;
+
+    @Schema(
+            description = "Total amount used by a Customer", example = "1250"
+    )
+    private int amountUsed;
+
+    @Schema(
+            description = "Total available amount against a card", example = "98750"
+    )
+    private int availableAmount;
+
+}
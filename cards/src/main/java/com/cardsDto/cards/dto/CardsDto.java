@@ -1,5 +1,6 @@
 package com.cardsDto.cards.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -51,4 +52,11 @@ public class CardsDto {
     )
     private int availableAmount;
 
+    /*
+     * Id and version of the card row this data was read from. Travels in the ETag header, never in the body.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String version;
+
 }
@@ -3,6 +3,7 @@ package com.cardsDto.cards.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -35,4 +36,6 @@ public class BaseEntity {
     @Column(insertable = false)
     private String updatedBy;
 
+    @Version
+    private Long version;
 }
@@ -4,6 +4,10 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(name = "cards", indexes = {
+        @Index(name = "ux_cards_mobile_number", columnList = "mobile_number", unique = true),
+        @Index(name = "ux_cards_card_number", columnList = "card_number", unique = true)
+})
 @Getter
 @Setter
 @ToString
@@ -0,0 +1,13 @@
+package com.cardsDto.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class CardBalanceException extends RuntimeException {
+
+    public CardBalanceException(String message){
+        super(message);
+    }
+
+}
@@ -0,0 +1,207 @@
+package com.cardsDto.cards.filter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+ * Cuckoo filter over 64-bit hashes: 16-bit fingerprints in buckets of four, each item in one of two buckets. Unlike a
+ * Bloom filter it can remove items, so it can follow deletes. mightContain never returns false for an item that was
+ * added and not removed; it returns true for an absent item with a probability that grows with the load (about
+ * 1e-4 when full). Only remove items that were added, or another item sharing the fingerprint can go missing.
+ *
+ * Lookups read optimistically and only lock if a writer moved fingerprints meanwhile; writers are serialized.
+ */
+public class CuckooFilter {
+
+    private static final int BUCKET_SIZE = 4;
+    private static final double MAX_LOAD = 0.95;
+    private static final int MAX_KICKS = 500;
+    private static final int MAX_BUCKETS = 1 << 27;
+    private static final int FINGERPRINT_VALUES = 0xFFFF;
+
+    private final short[] fingerprints;
+    private final int bucketMask;
+    private final StampedLock lock = new StampedLock();
+    private long count;
+    // the fingerprint left over when an insert ran out of kicks; while it is set the filter takes no more items
+    private short victim;
+    private int victimBucket;
+
+    /**
+     * @param capacity - number of items the filter must hold; the table is sized for it at 95% load at most
+     */
+    public CuckooFilter(long capacity) {
+        long buckets = Math.max(1, (long) Math.ceil(capacity / (BUCKET_SIZE * MAX_LOAD)));
+        int bucketCount = (int) Math.min(MAX_BUCKETS, buckets <= 1 ? 1 : Long.highestOneBit(buckets - 1) << 1);
+        this.fingerprints = new short[bucketCount * BUCKET_SIZE];
+        this.bucketMask = bucketCount - 1;
+    }
+
+    public boolean mightContain(long hash) {
+        short fingerprint = fingerprint(hash);
+        int bucket = index(hash);
+        int altBucket = altIndex(bucket, fingerprint);
+        long stamp = lock.tryOptimisticRead();
+        boolean found = contains(bucket, altBucket, fingerprint);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = contains(bucket, altBucket, fingerprint);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return false if the filter is full and the item was not added
+     */
+    public boolean add(long hash) {
+        short fingerprint = fingerprint(hash);
+        long stamp = lock.writeLock();
+        try {
+            if (victim != 0) {
+                return false;
+            }
+            count++;
+            place(index(hash), fingerprint);
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return false if no copy of the item's fingerprint was found
+     */
+    public boolean remove(long hash) {
+        short fingerprint = fingerprint(hash);
+        int bucket = index(hash);
+        int altBucket = altIndex(bucket, fingerprint);
+        long stamp = lock.writeLock();
+        try {
+            if (victim == fingerprint && (victimBucket == bucket || victimBucket == altBucket)) {
+                victim = 0;
+                count--;
+                return true;
+            }
+            if (!delete(bucket, fingerprint) && !delete(altBucket, fingerprint)) {
+                return false;
+            }
+            count--;
+            if (victim != 0) {
+                short leftOver = victim;
+                victim = 0;
+                place(victimBucket, leftOver);
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public long size() {
+        long stamp = lock.readLock();
+        try {
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long slots() {
+        return fingerprints.length;
+    }
+
+    public long memoryBytes() {
+        return (long) fingerprints.length * Short.BYTES;
+    }
+
+    public double loadFactor() {
+        return (double) size() / fingerprints.length;
+    }
+
+    /**
+     * @return chance that an absent item is reported as present at the current load
+     */
+    public double expectedFalsePositiveRate() {
+        return 1 - Math.pow(1 - 1.0 / FINGERPRINT_VALUES, 2.0 * BUCKET_SIZE * loadFactor());
+    }
+
+    // stores the fingerprint in one of its buckets, moving others to their alternate bucket to make room if needed;
+    // if no room is found, whichever fingerprint is left in hand becomes the victim
+    private void place(int bucket, short fingerprint) {
+        if (insert(bucket, fingerprint) || insert(altIndex(bucket, fingerprint), fingerprint)) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextBoolean()) {
+            bucket = altIndex(bucket, fingerprint);
+        }
+        for (int kick = 0; kick < MAX_KICKS; kick++) {
+            int slot = bucket * BUCKET_SIZE + random.nextInt(BUCKET_SIZE);
+            short evicted = fingerprints[slot];
+            fingerprints[slot] = fingerprint;
+            fingerprint = evicted;
+            bucket = altIndex(bucket, fingerprint);
+            if (insert(bucket, fingerprint)) {
+                return;
+            }
+        }
+        victim = fingerprint;
+        victimBucket = bucket;
+    }
+
+    private boolean contains(int bucket, int altBucket, short fingerprint) {
+        return (victim == fingerprint && (victimBucket == bucket || victimBucket == altBucket))
+                || bucketContains(bucket, fingerprint) || bucketContains(altBucket, fingerprint);
+    }
+
+    private boolean bucketContains(int bucket, short fingerprint) {
+        int start = bucket * BUCKET_SIZE;
+        for (int slot = start; slot < start + BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean insert(int bucket, short fingerprint) {
+        int start = bucket * BUCKET_SIZE;
+        for (int slot = start; slot < start + BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == 0) {
+                fingerprints[slot] = fingerprint;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean delete(int bucket, short fingerprint) {
+        int start = bucket * BUCKET_SIZE;
+        for (int slot = start; slot < start + BUCKET_SIZE; slot++) {
+            if (fingerprints[slot] == fingerprint) {
+                fingerprints[slot] = 0;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int index(long hash) {
+        return (int) hash & bucketMask;
+    }
+
+    // partial-key cuckoo hashing: the other bucket depends only on this one and the fingerprint, and going back is the same XOR
+    private int altIndex(int bucket, short fingerprint) {
+        return (bucket ^ (fingerprint * 0x5bd1e995)) & bucketMask;
+    }
+
+    // 0 marks an empty slot
+    private static short fingerprint(long hash) {
+        short fingerprint = (short) (hash >>> 48);
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+}
@@ -0,0 +1,289 @@
+package com.cardsDto.cards.ledger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/*
+ * Append-only log of the balance changes CardLedger approved, in numbered segment files of 16-byte records: cardId,
+ * change of the amount used, and a CRC32 of both. A single writer thread takes every append queued since its last
+ * write, writes them at once and forces them to disk with one fsync, then completes them all, so concurrent
+ * authorizations share the cost of a sync instead of paying one each (group commit).
+ *
+ * seal() ends the current segment and returns the sum of its changes per card, which is what the ledger writes to the
+ * table; the file is only needed again if the process stops before that write commits. After a failed write the log
+ * refuses further appends, since it can no longer tell which records reached the disk.
+ */
+public class AuthorizationLog implements Closeable {
+
+    static final int RECORD_BYTES = 16;
+    private static final int MAX_BATCH = 4096;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    /**
+     * @param deltas - cardId to the total change of its amount used in this segment
+     */
+    public record Segment(long number, Path file, Map<Long, Long> deltas) {
+    }
+
+    private sealed interface Request permits Append, Seal, Stop {
+    }
+
+    private record Append(long cardId, int delta, CompletableFuture<Void> durable) implements Request {
+    }
+
+    private record Seal(CompletableFuture<Segment> sealed) implements Request {
+    }
+
+    private record Stop() implements Request {
+    }
+
+    private final Path directory;
+    private final BlockingQueue<Request> requests = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+
+    // owned by the writer thread
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH * RECORD_BYTES);
+    private final ByteBuffer checksummed = ByteBuffer.allocate(12);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private long segment;
+    private Map<Long, Long> deltas = new HashMap<>();
+    private IOException failure;
+
+    /**
+     * @param firstSegment - number of the first segment to write; must be above every segment already in the directory
+     */
+    public AuthorizationLog(Path directory, long firstSegment) {
+        this.directory = directory;
+        this.segment = firstSegment;
+        this.writer = Thread.ofPlatform().name("card-ledger-log").daemon().start(this::run);
+    }
+
+    /**
+     * @return completes once the record is on disk, or exceptionally if it could not be written
+     */
+    public CompletableFuture<Void> append(long cardId, int delta) {
+        CompletableFuture<Void> durable = new CompletableFuture<>();
+        submit(new Append(cardId, delta, durable), durable);
+        return durable;
+    }
+
+    /**
+     * Ends the current segment once every append queued before this call is on disk; later appends go to the next one.
+     *
+     * @return the sealed segment, or null if nothing was appended since the previous seal
+     */
+    public CompletableFuture<Segment> seal() {
+        CompletableFuture<Segment> sealed = new CompletableFuture<>();
+        submit(new Seal(sealed), sealed);
+        return sealed;
+    }
+
+    /**
+     * Stops the writer after the requests already queued; the current segment is left on disk unsealed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        requests.add(new Stop());
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return the segments found in the directory, oldest first, each summed up to its first torn or corrupt record
+     */
+    public static List<Segment> recover(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(AuthorizationLog::isSegment).toList()) {
+                segments.add(new Segment(segmentNumber(file), file, read(file)));
+            }
+        }
+        segments.sort(Comparator.comparingLong(Segment::number));
+        return segments;
+    }
+
+    private void submit(Request request, CompletableFuture<?> done) {
+        requests.add(request);
+        // close() sets the flag before queuing Stop, so a request the writer will never see is failed here
+        if (closed && requests.remove(request)) {
+            done.completeExceptionally(new IllegalStateException("Authorization log is closed"));
+        }
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>(MAX_BATCH);
+        List<Append> pending = new ArrayList<>(MAX_BATCH);
+        while (true) {
+            try {
+                batch.add(requests.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            requests.drainTo(batch, MAX_BATCH - 1);
+            for (Request request : batch) {
+                switch (request) {
+                    case Append append -> pending.add(append);
+                    case Seal seal -> {
+                        write(pending);
+                        seal.sealed().complete(roll());
+                    }
+                    case Stop stop -> {
+                        write(pending);
+                        closeChannel();
+                        failRemaining();
+                        return;
+                    }
+                }
+            }
+            write(pending);
+            batch.clear();
+        }
+    }
+
+    private void write(List<Append> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = -1;
+        try {
+            if (failure != null) {
+                throw failure;
+            }
+            if (channel == null) {
+                channel = FileChannel.open(segmentFile(segment), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            start = channel.size();
+            buffer.clear();
+            for (Append append : pending) {
+                buffer.putLong(append.cardId()).putInt(append.delta()).putInt(checksum(append.cardId(), append.delta()));
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+                truncate(start);
+            }
+            pending.forEach(append -> append.durable().completeExceptionally(e));
+            pending.clear();
+            return;
+        }
+        for (Append append : pending) {
+            deltas.merge(append.cardId(), (long) append.delta(), Long::sum);
+            append.durable().complete(null);
+        }
+        pending.clear();
+    }
+
+    // best effort: a record of the failed batch left on disk would be replayed after a restart
+    private void truncate(long size) {
+        if (channel != null && size >= 0) {
+            try {
+                channel.truncate(size);
+                channel.force(false);
+            } catch (IOException e) {
+                // the original failure is what the callers see
+            }
+        }
+    }
+
+    private Segment roll() {
+        if (channel == null) {
+            return null;
+        }
+        closeChannel();
+        Segment sealed = new Segment(segment, segmentFile(segment), deltas);
+        segment++;
+        deltas = new HashMap<>();
+        return sealed;
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // every record in it was already forced to disk
+            }
+            channel = null;
+        }
+    }
+
+    private void failRemaining() {
+        IllegalStateException closedException = new IllegalStateException("Authorization log is closed");
+        for (Request request = requests.poll(); request != null; request = requests.poll()) {
+            switch (request) {
+                case Append append -> append.durable().completeExceptionally(closedException);
+                case Seal seal -> seal.sealed().completeExceptionally(closedException);
+                case Stop stop -> {
+                }
+            }
+        }
+    }
+
+    private int checksum(long cardId, int delta) {
+        checksummed.clear().putLong(cardId).putInt(delta);
+        crc.reset();
+        crc.update(checksummed.array(), 0, checksummed.position());
+        return (int) crc.getValue();
+    }
+
+    private Path segmentFile(long number) {
+        return directory.resolve(SEGMENT_PREFIX + number + SEGMENT_SUFFIX);
+    }
+
+    private static Map<Long, Long> read(Path file) throws IOException {
+        Map<Long, Long> deltas = new HashMap<>();
+        ByteBuffer records = ByteBuffer.wrap(Files.readAllBytes(file));
+        CRC32 crc = new CRC32();
+        while (records.remaining() >= RECORD_BYTES) {
+            long cardId = records.getLong();
+            int delta = records.getInt();
+            int checksum = records.getInt();
+            crc.reset();
+            crc.update(records.array(), records.position() - RECORD_BYTES, 12);
+            if ((int) crc.getValue() != checksum) {
+                // a write torn by a crash was never acknowledged, and nothing after it can have been
+                break;
+            }
+            deltas.merge(cardId, (long) delta, Long::sum);
+        }
+        return deltas;
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
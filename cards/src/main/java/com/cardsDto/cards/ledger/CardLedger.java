@@ -0,0 +1,400 @@
+package com.cardsDto.cards.ledger;
+
+import com.cardsDto.cards.dto.AuthorizationDto;
+import com.cardsDto.cards.exception.CardBalanceException;
+import com.cardsDto.cards.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+/*
+ * In-memory ledger of the available amount of every card that has been authorized against, so authorizations are
+ * decided with a compare-and-set on the card's balance instead of a row lock: they never wait for one another, not
+ * even on the same card. A card is loaded from the table on its first authorization and stays authoritative for its
+ * amount used and available amount from then on.
+ *
+ * An approved change is acknowledged once AuthorizationLog has it on disk. Every flush interval the log segment is
+ * sealed and its per-card totals are added to the cards table in one batched transaction, together with the number of
+ * the segment in card_ledger_checkpoint, so a segment a crash left behind is replayed exactly once at the next start.
+ *
+ * Changes that write the card row directly run through exclusive() (update, delete) or direct() (single-statement
+ * spends and repayments): the card's pending changes are flushed first and the card is reloaded from the table
+ * afterwards, unless cards.ledger.write-behind routes spends and repayments here as well, so a card used many times a
+ * second costs one row write per flush instead of one per use. /actuator/ledger shows the cards held, the segments
+ * waiting for the table and the rows written for the changes approved; POST /actuator/ledger flushes now.
+ */
+@Component
+@Endpoint(id = "ledger")
+public class CardLedger {
+
+    private static final String LOAD_SQL =
+            "SELECT card_id, amount_used, available_amount FROM cards WHERE card_number = ?";
+    private static final String APPLY_SQL =
+            "UPDATE cards SET amount_used = amount_used + ?, available_amount = available_amount - ?, version = version + 1 " +
+            "WHERE card_id = ?";
+    private static final String CHECKPOINT_SQL = "SELECT segment FROM card_ledger_checkpoint WHERE id = 1";
+    private static final String ADVANCE_CHECKPOINT_SQL = "UPDATE card_ledger_checkpoint SET segment = ? WHERE id = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transaction;
+    private final Path directory;
+    private final Duration flushInterval;
+    private final boolean writeBehind;
+    private final ConcurrentHashMap<String, Balance> balances = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // sealed segments not yet in the table, oldest first, so the checkpoint only ever moves forward
+    private final Deque<AuthorizationLog.Segment> unflushed = new ArrayDeque<>();
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("card-ledger-flush").daemon().factory());
+    private final Counter approved;
+    private final Counter declined;
+    private final Counter flushFailures;
+    private final Counter rowsWritten;
+    private final Timer flushes;
+    private FileChannel lockFile;
+    private FileLock directoryLock;
+    private volatile AuthorizationLog log;
+
+    public CardLedger(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                      @Value("${cards.ledger.directory:${java.io.tmpdir}/cards-ledger}") String directory,
+                      @Value("${cards.ledger.flush-interval:200ms}") Duration flushInterval,
+                      @Value("${cards.ledger.write-behind:false}") boolean writeBehind) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.directory = Path.of(directory);
+        this.flushInterval = flushInterval;
+        this.writeBehind = writeBehind;
+        this.approved = Counter.builder("card.ledger.changes").tag("result", "approved")
+                .description("Authorizations and reversals decided by the ledger").register(meterRegistry);
+        this.declined = Counter.builder("card.ledger.changes").tag("result", "declined")
+                .description("Authorizations and reversals decided by the ledger").register(meterRegistry);
+        this.flushFailures = Counter.builder("card.ledger.flush.failures")
+                .description("Flushes that left segments for the next attempt").register(meterRegistry);
+        this.rowsWritten = Counter.builder("card.ledger.rows.written")
+                .description("Card rows updated by flushes, one per card per segment").register(meterRegistry);
+        this.flushes = Timer.builder("card.ledger.flush")
+                .description("Time to add one log segment to the cards table").register(meterRegistry);
+        Gauge.builder("card.ledger.cards", balances, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * Replays the segments a previous run left behind, then starts logging and the periodic flush.
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        lockFile = FileChannel.open(directory.resolve("ledger.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockFile.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            lockFile.close();
+            throw new IllegalStateException("Ledger directory " + directory + " is used by another process");
+        }
+        long checkpoint = jdbcTemplate.queryForObject(CHECKPOINT_SQL, Long.class);
+        long nextSegment = checkpoint + 1;
+        for (AuthorizationLog.Segment segment : AuthorizationLog.recover(directory)) {
+            if (segment.number() > checkpoint) {
+                apply(segment);
+            }
+            Files.deleteIfExists(segment.file());
+            nextSegment = Math.max(nextSegment, segment.number() + 1);
+        }
+        log = new AuthorizationLog(directory, nextSegment);
+        flusher.scheduleWithFixedDelay(this::scheduledFlush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic flush and writes everything still pending to the table.
+     */
+    @PreDestroy
+    public void close() throws IOException {
+        flusher.shutdown();
+        if (log == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            log.close();
+            directoryLock.release();
+            lockFile.close();
+        }
+    }
+
+    /**
+     * @param amount - positive amount to take from the available amount
+     * @return the card balance once the authorization is on disk
+     */
+    public AuthorizationDto authorize(String cardNumber, int amount) {
+        return change(cardNumber, amount);
+    }
+
+    /**
+     * @param amount - positive amount of an earlier authorization to give back to the available amount
+     * @return the card balance once the reversal is on disk
+     */
+    public AuthorizationDto reverse(String cardNumber, int amount) {
+        return change(cardNumber, -amount);
+    }
+
+    /**
+     * @return whether spends and repayments are kept here and flushed with the authorizations instead of written to
+     * the table one by one
+     */
+    public boolean writeBehind() {
+        return writeBehind;
+    }
+
+    /**
+     * @return the balance the ledger holds for the card, or null if it holds none and the table is current
+     */
+    public CardBalance balance(String cardNumber) {
+        Balance balance = balances.get(cardNumber);
+        if (balance == null || !balance.loaded || balance.retired) {
+            return null;
+        }
+        int available = balance.available.get();
+        return new CardBalance(balance.amountUsed(available), available);
+    }
+
+    /**
+     * Runs a change that writes the card row directly. Authorizations of the card wait until it is done; the card's
+     * pending changes reach the table before it runs, and the card is reloaded from the table afterwards. If they
+     * cannot be flushed the change does not run and the card stays loaded, since the table is missing its changes.
+     */
+    public <T> T exclusive(String cardNumber, Supplier<T> change) {
+        while (true) {
+            Balance balance = balances.computeIfAbsent(cardNumber, number -> new Balance());
+            long stamp = balance.lock.writeLock();
+            boolean flushed = false;
+            try {
+                if (balance.retired) {
+                    continue;
+                }
+                if (balance.loaded) {
+                    flush();
+                }
+                flushed = true;
+                return change.get();
+            } finally {
+                if (flushed) {
+                    balance.retired = true;
+                    balances.remove(cardNumber, balance);
+                }
+                balance.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Runs a change that moves the card's amounts in the table itself, concurrently with other such changes. A card
+     * the ledger holds is flushed and dropped first; it is only loaded again once no such change is running.
+     */
+    public <T> T direct(String cardNumber, Supplier<T> change) {
+        while (true) {
+            Balance balance = balances.computeIfAbsent(cardNumber, number -> new Balance());
+            if (balance.loaded) {
+                exclusive(cardNumber, () -> null);
+                continue;
+            }
+            long stamp = balance.lock.readLock();
+            try {
+                if (balance.retired || balance.loaded) {
+                    continue;
+                }
+                return change.get();
+            } finally {
+                balance.lock.unlockRead(stamp);
+                // the last change out drops the entry, so cards only ever changed directly take no room here
+                long writeStamp = balance.lock.tryWriteLock();
+                if (writeStamp != 0) {
+                    if (!balance.loaded) {
+                        balance.retired = true;
+                        balances.remove(cardNumber, balance);
+                    }
+                    balance.lock.unlockWrite(writeStamp);
+                }
+            }
+        }
+    }
+
+    @ReadOperation
+    public LedgerReport report() {
+        flushLock.lock();
+        try {
+            return new LedgerReport(balances.size(), unflushed.size(), (long) approved.count(), (long) declined.count(),
+                    (long) rowsWritten.count());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Seals the current log segment and adds it, and any segment an earlier flush could not write, to the table.
+     */
+    @WriteOperation
+    public void flush() {
+        flushLock.lock();
+        try {
+            AuthorizationLog.Segment sealed = log.seal().join();
+            if (sealed != null) {
+                unflushed.addLast(sealed);
+            }
+            while (!unflushed.isEmpty()) {
+                AuthorizationLog.Segment segment = unflushed.peekFirst();
+                flushes.record(() -> apply(segment));
+                unflushed.removeFirst();
+                try {
+                    Files.deleteIfExists(segment.file());
+                } catch (IOException e) {
+                    // the checkpoint already covers it, so the next start deletes it without replaying
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private AuthorizationDto change(String cardNumber, int amount) {
+        while (true) {
+            Balance balance = balances.computeIfAbsent(cardNumber, number -> new Balance());
+            if (!balance.loaded) {
+                load(cardNumber, balance);
+            }
+            CompletableFuture<Void> durable;
+            int available;
+            long stamp = balance.lock.readLock();
+            try {
+                if (balance.retired) {
+                    continue;
+                }
+                int previous;
+                do {
+                    previous = balance.available.get();
+                    available = previous - amount;
+                    if (available < 0 || balance.amountUsed(available) < 0) {
+                        declined.increment();
+                        throw amount > 0
+                                ? new CardBalanceException("Card " + cardNumber + " has " + previous + " available, cannot authorize " + amount)
+                                : new CardBalanceException("Card " + cardNumber + " has " + balance.amountUsed(previous) + " used, cannot reverse " + -amount);
+                    }
+                } while (!balance.available.compareAndSet(previous, available));
+                durable = log.append(balance.cardId, amount);
+            } finally {
+                balance.lock.unlockRead(stamp);
+            }
+            try {
+                durable.join();
+            } catch (CompletionException e) {
+                balance.available.addAndGet(amount);
+                throw new IllegalStateException("Card " + cardNumber + " change could not be logged", e.getCause());
+            }
+            approved.increment();
+            return new AuthorizationDto(cardNumber, amount, balance.amountUsed(available), available);
+        }
+    }
+
+    private void load(String cardNumber, Balance balance) {
+        long stamp = balance.lock.writeLock();
+        try {
+            if (balance.loaded || balance.retired) {
+                return;
+            }
+            List<int[]> rows = jdbcTemplate.query(LOAD_SQL, (resultSet, rowNum) -> new int[]{resultSet.getInt(1),
+                    resultSet.getInt(2), resultSet.getInt(3)}, cardNumber);
+            if (rows.isEmpty()) {
+                balance.retired = true;
+                balances.remove(cardNumber, balance);
+                throw new ResourceNotFoundException("Card", "CardNumber", cardNumber);
+            }
+            int[] row = rows.get(0);
+            balance.cardId = row[0];
+            balance.loadedUsed = row[1];
+            balance.loadedAvailable = row[2];
+            balance.available.set(row[2]);
+            balance.loaded = true;
+        } finally {
+            balance.lock.unlockWrite(stamp);
+        }
+    }
+
+    private void apply(AuthorizationLog.Segment segment) {
+        List<Object[]> updates = segment.deltas().entrySet().stream()
+                .map(delta -> new Object[]{delta.getValue(), delta.getValue(), delta.getKey()})
+                .toList();
+        transaction.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(APPLY_SQL, updates);
+            jdbcTemplate.update(ADVANCE_CHECKPOINT_SQL, segment.number());
+        });
+        rowsWritten.increment(updates.size());
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // the segments stay queued and are written by the next flush
+            flushFailures.increment();
+        }
+    }
+
+    private static final class Balance {
+
+        // authorizations share the read side, so they never wait for each other; loading and exclusive() take the write side
+        final StampedLock lock = new StampedLock();
+        final AtomicInteger available = new AtomicInteger();
+        long cardId;
+        int loadedUsed;
+        int loadedAvailable;
+        volatile boolean loaded;
+        volatile boolean retired;
+
+        // the row may not hold used + available = limit, so the amount used moves by what the available amount moved
+        int amountUsed(int availableAmount) {
+            return loadedUsed + loadedAvailable - availableAmount;
+        }
+    }
+
+    public record CardBalance(int amountUsed, int availableAmount) {
+    }
+
+    public record LedgerReport(int cards, int unflushedSegments, long approved, long declined, long rowsWritten) {
+    }
+}
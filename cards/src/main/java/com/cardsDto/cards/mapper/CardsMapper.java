@@ -2,6 +2,8 @@ package com.cardsDto.cards.mapper;
 
 import com.cardsDto.cards.dto.CardsDto;
 import com.cardsDto.cards.entity.Cards;
+import com.cardsDto.cards.ledger.CardLedger;
+import com.cardsDto.cards.projection.CardVersionView;
 
 
 public class CardsMapper {
@@ -12,6 +14,7 @@ public class CardsMapper {
         cardsDto.setTotalLimit(cards.getTotalLimit());
         cardsDto.setAvailableAmount(cards.getAvailableAmount());
         cardsDto.setAmountUsed(cards.getAmountUsed());
+        cardsDto.setVersion(toVersion(cards.getCardId(), cards.getVersion()));
         return cardsDto;
     }
 
@@ -24,4 +27,18 @@ public class CardsMapper {
         cards.setAmountUsed(cardsDto.getAmountUsed());
         return cards;
     }
+
+    public static String toVersion(CardVersionView view) {
+        return toVersion(view.cardId(), view.version());
+    }
+
+    // the row version only moves when the ledger flushes, so the balance it holds is part of the version too
+    public static String toVersion(String rowVersion, CardLedger.CardBalance balance) {
+        return rowVersion + "." + balance.availableAmount();
+    }
+
+    // the id keeps a card created again for the same mobile number from matching the versions of the old one
+    private static String toVersion(Long cardId, Long version) {
+        return cardId + "." + version;
+    }
 }
@@ -0,0 +1,23 @@
+package com.cardsDto.cards.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import org.springframework.stereotype.Component;
+
+/*
+ * Replaces the default tags of the spring.data.repository.invocations timer (repository, method, state, exception)
+ * with the same set plus the outcome tag used by service.invocations.
+ */
+@Component
+public class OutcomeRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        RepositoryMethodInvocationResult result = invocation.getResult();
+        Outcome outcome = Outcome.of(result != null ? result.getError() : null);
+        return Tags.of(super.repositoryTags(invocation)).and("outcome", outcome.getValue());
+    }
+}
@@ -0,0 +1,264 @@
+package com.cardsDto.cards.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * Receives every JDBC statement from SqlTimingDataSourcePostProcessor. All of them feed the jdbc.statements timer;
+ * a sample of them, plus every statement slower than the threshold, is aggregated by SQL text. SELECTs are also
+ * counted per request (SqlRequestFilter), and one repeated at least n-plus-one-threshold times is reported as a
+ * likely N+1. /actuator/sql serves the slowest statements, the N+1 suspects and the Hibernate statistics;
+ * DELETE /actuator/sql starts a new measurement.
+ */
+@Component
+@Endpoint(id = "sql")
+public class SqlStatementMonitor {
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final int TOP_ENTRIES = 20;
+
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final int nPlusOneThreshold;
+    private final Timer statements;
+    private final Counter slowStatements;
+    private final Counter nPlusOneRequests;
+    private final Map<String, StatementStats> statementStats = new ConcurrentHashMap<>();
+    private final Map<NPlusOneKey, NPlusOneStats> nPlusOneStats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, Integer>> requestSelects = new ThreadLocal<>();
+
+    public SqlStatementMonitor(MeterRegistry meterRegistry, ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                               @Value("${cards.sql.sample-rate:0.1}") double sampleRate,
+                               @Value("${cards.sql.slow-threshold:50ms}") Duration slowThreshold,
+                               @Value("${cards.sql.n-plus-one-threshold:10}") int nPlusOneThreshold) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.nPlusOneThreshold = nPlusOneThreshold;
+        this.statements = Timer.builder("jdbc.statements")
+                .description("Execution time of JDBC statements")
+                .register(meterRegistry);
+        this.slowStatements = Counter.builder("jdbc.statements.slow")
+                .description("JDBC statements slower than the configured threshold")
+                .register(meterRegistry);
+        this.nPlusOneRequests = Counter.builder("jdbc.requests.n-plus-one")
+                .description("Requests that repeated the same SELECT at least the configured number of times")
+                .register(meterRegistry);
+    }
+
+    @ReadOperation
+    public SqlReport sql() {
+        List<StatementReport> slowest = statementStats.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey()))
+                .sorted(Comparator.comparingDouble(StatementReport::maxMillis).reversed())
+                .limit(TOP_ENTRIES)
+                .toList();
+        List<NPlusOneReport> nPlusOne = nPlusOneStats.entrySet().stream()
+                .map(entry -> entry.getValue().report(entry.getKey()))
+                .sorted(Comparator.comparingLong(NPlusOneReport::maxExecutions).reversed())
+                .limit(TOP_ENTRIES)
+                .toList();
+        return new SqlReport(hibernateStatistics(), slowest, nPlusOne);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statementStats.clear();
+        nPlusOneStats.clear();
+        Statistics statistics = statistics();
+        if (statistics != null) {
+            statistics.clear();
+        }
+    }
+
+    /**
+     * @return whether the statement about to run gets its SQL text, timing and row count aggregated
+     */
+    boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * @param rows - rows affected by an update or batch, -1 when not known yet (queries report theirs via recordRows)
+     */
+    void recordExecution(String sql, long nanos, long rows, boolean sampled) {
+        statements.record(nanos, TimeUnit.NANOSECONDS);
+        boolean slow = nanos >= slowThresholdNanos;
+        if (slow) {
+            slowStatements.increment();
+        }
+        if (sql == null) {
+            return;
+        }
+        Map<String, Integer> selects = requestSelects.get();
+        if (selects != null && isSelect(sql)) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+        if (sampled || slow) {
+            StatementStats stats = stats(sql);
+            if (stats != null) {
+                stats.record(nanos, rows, slow);
+            }
+        }
+    }
+
+    void recordRows(String sql, long rows) {
+        StatementStats stats = sql != null ? statementStats.get(sql) : null;
+        if (stats != null) {
+            stats.rows.add(rows);
+        }
+    }
+
+    void beginRequest() {
+        requestSelects.set(new HashMap<>());
+    }
+
+    /**
+     * @param request - name the request is reported under, such as "GET /api/fetch"
+     */
+    void endRequest(String request) {
+        Map<String, Integer> selects = requestSelects.get();
+        requestSelects.remove();
+        if (selects == null) {
+            return;
+        }
+        boolean flagged = false;
+        for (Map.Entry<String, Integer> select : selects.entrySet()) {
+            if (select.getValue() >= nPlusOneThreshold) {
+                NPlusOneKey key = new NPlusOneKey(request, select.getKey());
+                if (nPlusOneStats.size() < MAX_ENTRIES || nPlusOneStats.containsKey(key)) {
+                    nPlusOneStats.computeIfAbsent(key, ignored -> new NPlusOneStats()).record(select.getValue());
+                }
+                flagged = true;
+            }
+        }
+        if (flagged) {
+            nPlusOneRequests.increment();
+        }
+    }
+
+    private StatementStats stats(String sql) {
+        StatementStats stats = statementStats.get(sql);
+        if (stats == null && statementStats.size() < MAX_ENTRIES) {
+            stats = statementStats.computeIfAbsent(sql, ignored -> new StatementStats());
+        }
+        return stats;
+    }
+
+    private static boolean isSelect(String sql) {
+        String trimmed = sql.stripLeading();
+        return trimmed.regionMatches(true, 0, "select", 0, 6) || trimmed.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    private Map<String, Object> hibernateStatistics() {
+        Statistics statistics = statistics();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        if (statistics == null || !statistics.isStatisticsEnabled()) {
+            summary.put("enabled", false);
+            return summary;
+        }
+        summary.put("enabled", true);
+        summary.put("sessionsOpened", statistics.getSessionOpenCount());
+        summary.put("transactions", statistics.getTransactionCount());
+        summary.put("preparedStatements", statistics.getPrepareStatementCount());
+        summary.put("queryExecutions", statistics.getQueryExecutionCount());
+        summary.put("queryExecutionMaxMillis", statistics.getQueryExecutionMaxTime());
+        summary.put("queryExecutionMaxQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        summary.put("entityLoads", statistics.getEntityLoadCount());
+        summary.put("entityFetches", statistics.getEntityFetchCount());
+        summary.put("entityInserts", statistics.getEntityInsertCount());
+        summary.put("entityUpdates", statistics.getEntityUpdateCount());
+        summary.put("entityDeletes", statistics.getEntityDeleteCount());
+        summary.put("collectionFetches", statistics.getCollectionFetchCount());
+        summary.put("flushes", statistics.getFlushCount());
+        summary.put("optimisticFailures", statistics.getOptimisticFailureCount());
+        return summary;
+    }
+
+    private Statistics statistics() {
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        return factory != null ? factory.unwrap(SessionFactory.class).getStatistics() : null;
+    }
+
+    private static final class StatementStats {
+
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder rows = new LongAdder();
+        private final LongAdder slow = new LongAdder();
+
+        void record(long nanos, long rowCount, boolean slowExecution) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+            if (rowCount > 0) {
+                rows.add(rowCount);
+            }
+            if (slowExecution) {
+                slow.increment();
+            }
+        }
+
+        StatementReport report(String sql) {
+            long count = executions.sum();
+            double meanMillis = count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+            return new StatementReport(sql, count, meanMillis, maxNanos.get() / 1e6, rows.sum(), slow.sum());
+        }
+    }
+
+    private static final class NPlusOneStats {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAccumulator maxExecutions = new LongAccumulator(Math::max, 0);
+
+        void record(int executions) {
+            requests.increment();
+            maxExecutions.accumulate(executions);
+        }
+
+        NPlusOneReport report(NPlusOneKey key) {
+            return new NPlusOneReport(key.request(), key.sql(), requests.sum(), maxExecutions.get());
+        }
+    }
+
+    private record NPlusOneKey(String request, String sql) {
+    }
+
+    public record SqlReport(Map<String, Object> hibernate, List<StatementReport> slowestStatements,
+                            List<NPlusOneReport> nPlusOne) {
+    }
+
+    /**
+     * Aggregated over the sampled and the slow executions of one SQL text; rows counts affected or returned rows
+     */
+    public record StatementReport(String sql, long executions, double meanMillis, double maxMillis, long rows,
+                                  long slowExecutions) {
+    }
+
+    public record NPlusOneReport(String request, String sql, long requests, long maxExecutions) {
+    }
+}
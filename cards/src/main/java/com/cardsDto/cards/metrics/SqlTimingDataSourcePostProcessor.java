@@ -0,0 +1,162 @@
+package com.cardsDto.cards.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+
+/*
+ * Wraps every DataSource so the statements it hands out report their execution time to SqlStatementMonitor.
+ * The wrapper keeps all interfaces of the pool (pool metrics and close-on-shutdown still reach HikariDataSource)
+ * and only intercepts the execute methods; the result sets of sampled queries are wrapped to count their rows.
+ */
+@Component
+public class SqlTimingDataSourcePostProcessor implements BeanPostProcessor {
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final ObjectProvider<SqlStatementMonitor> sqlStatementMonitor;
+
+    public SqlTimingDataSourcePostProcessor(ObjectProvider<SqlStatementMonitor> sqlStatementMonitor) {
+        this.sqlStatementMonitor = sqlStatementMonitor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !Proxy.isProxyClass(bean.getClass())) {
+            return proxy(dataSource, new DataSourceHandler(dataSource, sqlStatementMonitor.getObject()));
+        }
+        return bean;
+    }
+
+    private static Object proxy(Object target, InvocationHandler handler) {
+        return Proxy.newProxyInstance(target.getClass().getClassLoader(),
+                ClassUtils.getAllInterfacesForClass(target.getClass(), target.getClass().getClassLoader()), handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record DataSourceHandler(DataSource target, SqlStatementMonitor monitor) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTimingDataSourcePostProcessor.invoke(target, method, args);
+            return result instanceof Connection connection
+                    ? proxy(connection, new ConnectionHandler(connection, monitor))
+                    : result;
+        }
+    }
+
+    private record ConnectionHandler(Connection target, SqlStatementMonitor monitor) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTimingDataSourcePostProcessor.invoke(target, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(statement, new StatementHandler(statement, sql, monitor));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final SqlStatementMonitor monitor;
+        private String sql;
+
+        StatementHandler(Statement target, String sql, SqlStatementMonitor monitor) {
+            this.target = target;
+            this.sql = sql;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("addBatch".equals(method.getName()) && args != null && args.length == 1) {
+                sql = (String) args[0];
+            }
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return SqlTimingDataSourcePostProcessor.invoke(target, method, args);
+            }
+            String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            boolean sampled = monitor.sample();
+            long start = System.nanoTime();
+            Object result = SqlTimingDataSourcePostProcessor.invoke(target, method, args);
+            long elapsed = System.nanoTime() - start;
+            monitor.recordExecution(executed, elapsed, affectedRows(result), sampled);
+            if (sampled && result instanceof ResultSet resultSet) {
+                return proxy(resultSet, new ResultSetHandler(resultSet, executed, monitor));
+            }
+            return result;
+        }
+
+        private static long affectedRows(Object result) {
+            if (result instanceof Integer count) {
+                return count;
+            }
+            if (result instanceof Long count) {
+                return count;
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+                return rows;
+            }
+            return -1;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+
+        private final ResultSet target;
+        private final String sql;
+        private final SqlStatementMonitor monitor;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet target, String sql, SqlStatementMonitor monitor) {
+            this.target = target;
+            this.sql = sql;
+            this.monitor = monitor;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTimingDataSourcePostProcessor.invoke(target, method, args);
+            if ("next".equals(method.getName()) && Boolean.TRUE.equals(result)) {
+                rows++;
+            } else if ("close".equals(method.getName()) && !reported) {
+                reported = true;
+                monitor.recordRows(sql, rows);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.cardsDto.cards.projection;
+
+/*
+ * Amounts of a card, as read to explain a declined spend or as a single-statement spend or repayment left them.
+ */
+public record CardBalanceView(int amountUsed, int availableAmount) {
+}
@@ -0,0 +1,8 @@
+package com.cardsDto.cards.projection;
+
+/*
+ * Just enough of a card to build the ETag, so a conditional fetch that ends in 304 reads the version column instead
+ * of the full row.
+ */
+public record CardVersionView(Long cardId, String mobileNumber, String cardNumber, Long version) {
+}
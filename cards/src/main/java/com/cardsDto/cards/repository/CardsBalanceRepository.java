@@ -0,0 +1,26 @@
+package com.cardsDto.cards.repository;
+
+import com.cardsDto.cards.projection.CardBalanceView;
+
+import java.util.Optional;
+
+/*
+ * Single-statement balance changes of CardsRepository. Each is one UPDATE whose WHERE clause checks the balance, so the
+ * row lock of the UPDATE orders concurrent changes of a card: none is lost and none overdraws, without a prior SELECT.
+ */
+public interface CardsBalanceRepository {
+
+    /**
+     * Moves the amount from available to used, only if that much is available.
+     *
+     * @return the new amounts, or empty if no card has the number or its available amount is too low
+     */
+    Optional<CardBalanceView> spend(String cardNumber, int amount);
+
+    /**
+     * Moves the amount from used back to available, only if that much is used.
+     *
+     * @return the new amounts, or empty if no card has the number or its amount used is too low
+     */
+    Optional<CardBalanceView> repay(String cardNumber, int amount);
+}
@@ -0,0 +1,45 @@
+package com.cardsDto.cards.repository;
+
+import com.cardsDto.cards.projection.CardBalanceView;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/*
+ * The UPDATE is wrapped in an H2 data change delta table (SELECT ... FROM FINAL TABLE (UPDATE ...)), so the new amounts
+ * come back from the same statement. Run through JdbcTemplate because Spring Data's parser of native queries rejects
+ * that form.
+ */
+public class CardsBalanceRepositoryImpl implements CardsBalanceRepository {
+
+    private static final String SPEND_SQL = "SELECT amount_used, available_amount FROM FINAL TABLE (" +
+            "UPDATE cards SET amount_used = amount_used + ?, available_amount = available_amount - ?, version = version + 1 " +
+            "WHERE card_number = ? AND available_amount >= ?)";
+    private static final String REPAY_SQL = "SELECT amount_used, available_amount FROM FINAL TABLE (" +
+            "UPDATE cards SET amount_used = amount_used - ?, available_amount = available_amount + ?, version = version + 1 " +
+            "WHERE card_number = ? AND amount_used >= ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CardsBalanceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public Optional<CardBalanceView> spend(String cardNumber, int amount) {
+        return update(SPEND_SQL, cardNumber, amount);
+    }
+
+    @Override
+    @Transactional
+    public Optional<CardBalanceView> repay(String cardNumber, int amount) {
+        return update(REPAY_SQL, cardNumber, amount);
+    }
+
+    private Optional<CardBalanceView> update(String sql, String cardNumber, int amount) {
+        return jdbcTemplate.query(sql, (resultSet, rowNum) -> new CardBalanceView(resultSet.getInt(1), resultSet.getInt(2)),
+                amount, amount, cardNumber, amount).stream().findFirst();
+    }
+}
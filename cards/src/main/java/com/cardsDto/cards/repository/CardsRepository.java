@@ -1,14 +1,57 @@
 package com.cardsDto.cards.repository;
 
 import com.cardsDto.cards.entity.Cards;
+import com.cardsDto.cards.projection.CardBalanceView;
+import com.cardsDto.cards.projection.CardVersionView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface CardsRepository extends JpaRepository<Cards, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface CardsRepository extends JpaRepository<Cards, Long>, CardsBalanceRepository {
 
     Optional<Cards> findByMobileNumber(String mobileNumber);
 
     Optional<Cards> findByCardNumber(String cardNumber);
 
+    @Query("SELECT new com.cardsDto.cards.projection.CardVersionView(c.cardId, c.mobileNumber, c.cardNumber, c.version) " +
+            "FROM Cards c WHERE c.mobileNumber = :mobileNumber")
+    Optional<CardVersionView> findCardVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("SELECT new com.cardsDto.cards.projection.CardVersionView(c.cardId, c.mobileNumber, c.cardNumber, c.version) " +
+            "FROM Cards c WHERE c.cardId = :cardId")
+    Optional<CardVersionView> findCardVersionByCardId(@Param("cardId") Long cardId);
+
+    @Query("SELECT new com.cardsDto.cards.projection.CardBalanceView(c.amountUsed, c.availableAmount) " +
+            "FROM Cards c WHERE c.cardNumber = :cardNumber")
+    Optional<CardBalanceView> findBalanceByCardNumber(@Param("cardNumber") String cardNumber);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Cards c WHERE c.cardId = :cardId")
+    int deleteByCardId(@Param("cardId") Long cardId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.mobileNumber FROM Cards c")
+    Stream<String> streamAllMobileNumbers();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c.mobileNumber, c.cardId FROM Cards c")
+    Stream<Object[]> streamAllMobileNumberIds();
+
 }
@@ -1,5 +1,6 @@
 package com.cardsDto.cards.service;
 
+import com.cardsDto.cards.dto.AuthorizationDto;
 import com.cardsDto.cards.dto.CardsDto;
 
 public interface ICardsService {
@@ -14,6 +15,12 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return the ETag version fetchCard would report for this mobileNumber, read without loading the card
+     */
+    String fetchCardVersion(String mobileNumber);
+
     /**
      * @param cardsDto - CardsDto Object
      * @return boolean indicating if the update of card details is successful or not
@@ -25,4 +32,32 @@ public interface ICardsService {
      * @return boolean indicating if the delete of card details is successful or not
      */
     boolean deleteCard(String mobileNumber);
+
+    /**
+     * @param cardNumber - Card Number to authorize against
+     * @param amount - Amount to take from the available amount
+     * @return the card balance once the authorization is durable
+     */
+    AuthorizationDto authorize(String cardNumber, int amount);
+
+    /**
+     * @param cardNumber - Card Number of an earlier authorization
+     * @param amount - Amount to give back to the available amount
+     * @return the card balance once the reversal is durable
+     */
+    AuthorizationDto reverse(String cardNumber, int amount);
+
+    /**
+     * @param cardNumber - Card Number to spend with
+     * @param amount - Amount to move from the available amount to the amount used
+     * @return the card balance after the spend
+     */
+    AuthorizationDto spend(String cardNumber, int amount);
+
+    /**
+     * @param cardNumber - Card Number to repay
+     * @param amount - Amount to move from the amount used back to the available amount
+     * @return the card balance after the repayment
+     */
+    AuthorizationDto repay(String cardNumber, int amount);
 }
\ No newline at end of file
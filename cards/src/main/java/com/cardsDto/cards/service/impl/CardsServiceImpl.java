@@ -1,19 +1,31 @@
 package com.cardsDto.cards.service.impl;
 
 
+import com.cardsDto.cards.allocator.CardNumberAllocator;
 import com.cardsDto.cards.constants.CardsConstants;
+import com.cardsDto.cards.dto.AuthorizationDto;
 import com.cardsDto.cards.dto.CardsDto;
 import com.cardsDto.cards.entity.Cards;
-import com.cardsDto.cards.exception.CardAlreadyExistsException;
+import com.cardsDto.cards.exception.CardBalanceException;
 import com.cardsDto.cards.exception.ResourceNotFoundException;
+import com.cardsDto.cards.filter.MobileNumberFilter;
+import com.cardsDto.cards.index.MobileNumberIndex;
+import com.cardsDto.cards.ledger.CardLedger;
 import com.cardsDto.cards.mapper.CardsMapper;
+import com.cardsDto.cards.projection.CardBalanceView;
+import com.cardsDto.cards.projection.CardVersionView;
 import com.cardsDto.cards.repository.CardsRepository;
 import com.cardsDto.cards.service.ICardsService;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 
 @Service
@@ -21,17 +33,22 @@ import java.util.Random;
 public class CardsServiceImpl implements ICardsService {
 
     private CardsRepository cardsRepository;
+    private MobileNumberFilter mobileNumberFilter;
+    private MobileNumberIndex mobileNumberIndex;
+    private CardLedger cardLedger;
+    private CardNumberAllocator cardNumberAllocator;
 
     /**
+     * A single insert: a mobile number that already has a card fails ux_cards_mobile_number, which
+     * GlobalExceptionHandler answers as CardAlreadyExistsException, so concurrent duplicates cannot both succeed.
+     *
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
-        if(optionalCards.isPresent()){
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
-        }
-        cardsRepository.save(createNewCard(mobileNumber));
+        Cards savedCard = cardsRepository.save(createNewCard(mobileNumber));
+        mobileNumberFilter.added(mobileNumber);
+        mobileNumberIndex.added(mobileNumber, savedCard.getCardId());
     }
 
 
@@ -42,8 +59,7 @@ public class CardsServiceImpl implements ICardsService {
      */
     private Cards createNewCard(String mobileNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(cardNumberAllocator.next());
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -61,10 +77,32 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public CardsDto fetchCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Cards cards = mobileNumberIndex.find(mobileNumber, cardsRepository::findById, Cards::getMobileNumber,
+                number -> mobileNumberFilter.find(number, cardsRepository::findByMobileNumber)).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
+        );
+        CardsDto cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+        CardLedger.CardBalance balance = cardLedger.balance(cards.getCardNumber());
+        if (balance != null) {
+            cardsDto.setAmountUsed(balance.amountUsed());
+            cardsDto.setAvailableAmount(balance.availableAmount());
+            cardsDto.setVersion(CardsMapper.toVersion(cardsDto.getVersion(), balance));
+        }
+        return cardsDto;
+    }
+
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return the ETag version fetchCard would report for this mobileNumber, read without loading the card
+     */
+    @Override
+    public String fetchCardVersion(String mobileNumber) {
+        CardVersionView view = mobileNumberIndex.find(mobileNumber, cardsRepository::findCardVersionByCardId, CardVersionView::mobileNumber,
+                number -> mobileNumberFilter.find(number, cardsRepository::findCardVersionByMobileNumber)).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+        CardLedger.CardBalance balance = cardLedger.balance(view.cardNumber());
+        return balance == null ? CardsMapper.toVersion(view) : CardsMapper.toVersion(CardsMapper.toVersion(view), balance);
     }
 
     /**
@@ -74,11 +112,23 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public boolean updateCard(CardsDto cardsDto) {
-        Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
-                () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
-        CardsMapper.mapToCards(cardsDto, cards);
-        cardsRepository.save(cards);
-        return  true;
+        // the body replaces the amounts, so the ledger's pending changes go to the row first and it reloads the card after
+        return cardLedger.exclusive(cardsDto.getCardNumber(), () -> {
+            Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
+            String previousMobileNumber = cards.getMobileNumber();
+            CardsMapper.mapToCards(cardsDto, cards);
+            cardsRepository.save(cards);
+            // save() checks the @Version read above, so only this update moved the previous number off the card and it
+            // leaves the filter exactly once
+            if (!Objects.equals(previousMobileNumber, cards.getMobileNumber())) {
+                mobileNumberFilter.added(cards.getMobileNumber());
+                mobileNumberFilter.removed(previousMobileNumber);
+                mobileNumberIndex.removed(previousMobileNumber, cards.getCardId());
+                mobileNumberIndex.added(cards.getMobileNumber(), cards.getCardId());
+            }
+            return true;
+        });
     }
 
     /**
@@ -87,11 +137,97 @@ public class CardsServiceImpl implements ICardsService {
      */
     @Override
     public boolean deleteCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Cards cards = mobileNumberIndex.find(mobileNumber, cardsRepository::findById, Cards::getMobileNumber,
+                number -> mobileNumberFilter.find(number, cardsRepository::findByMobileNumber)).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        cardsRepository.deleteById(cards.getCardId());
+        boolean deleted = cardLedger.exclusive(cards.getCardNumber(), () -> cardsRepository.deleteByCardId(cards.getCardId()) == 1);
+        if (deleted) {
+            mobileNumberFilter.removed(cards.getMobileNumber());
+            mobileNumberIndex.removed(cards.getMobileNumber(), cards.getCardId());
+        }
         return true;
     }
 
+    /**
+     * @param cardNumber - Card Number to authorize against
+     * @param amount - Amount to take from the available amount
+     * @return the card balance once the authorization is durable
+     */
+    @Override
+    public AuthorizationDto authorize(String cardNumber, int amount) {
+        return cardLedger.authorize(cardNumber, amount);
+    }
+
+    /**
+     * @param cardNumber - Card Number of an earlier authorization
+     * @param amount - Amount to give back to the available amount
+     * @return the card balance once the reversal is durable
+     */
+    @Override
+    public AuthorizationDto reverse(String cardNumber, int amount) {
+        return cardLedger.reverse(cardNumber, amount);
+    }
+
+    /**
+     * With cards.ledger.write-behind the spend is decided and logged by the ledger like an authorization, and reaches
+     * the table with the card's other changes at the next flush.
+     *
+     * @param cardNumber - Card Number to spend with
+     * @param amount - Amount to move from the available amount to the amount used
+     * @return the card balance after the spend
+     */
+    @Override
+    public AuthorizationDto spend(String cardNumber, int amount) {
+        if (cardLedger.writeBehind()) {
+            return cardLedger.authorize(cardNumber, amount);
+        }
+        CardBalanceView balance = updateBalance(cardNumber, () -> cardsRepository.spend(cardNumber, amount),
+                current -> "Card " + cardNumber + " has " + current.availableAmount() + " available, cannot spend " + amount);
+        return new AuthorizationDto(cardNumber, amount, balance.amountUsed(), balance.availableAmount());
+    }
+
+    /**
+     * @param cardNumber - Card Number to repay
+     * @param amount - Amount to move from the amount used back to the available amount
+     * @return the card balance after the repayment
+     */
+    @Override
+    public AuthorizationDto repay(String cardNumber, int amount) {
+        if (cardLedger.writeBehind()) {
+            return cardLedger.reverse(cardNumber, amount);
+        }
+        CardBalanceView balance = updateBalance(cardNumber, () -> cardsRepository.repay(cardNumber, amount),
+                current -> "Card " + cardNumber + " has " + current.amountUsed() + " used, cannot repay " + amount);
+        return new AuthorizationDto(cardNumber, -amount, balance.amountUsed(), balance.availableAmount());
+    }
+
+    /**
+     * Runs a single-statement balance update, retrying it when the database gives up on a lock, and only reads the
+     * card when the update matched nothing, to tell a missing card from a balance that is too low.
+     */
+    private CardBalanceView updateBalance(String cardNumber, Supplier<Optional<CardBalanceView>> update,
+                                          Function<CardBalanceView, String> declinedMessage) {
+        return cardLedger.direct(cardNumber, () -> {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    Optional<CardBalanceView> balance = update.get();
+                    if (balance.isPresent()) {
+                        return balance.get();
+                    }
+                    break;
+                } catch (TransientDataAccessException e) {
+                    if (attempt >= CardsConstants.BALANCE_UPDATE_ATTEMPTS) {
+                        throw e;
+                    }
+                    // jittered backoff, so the retries of a burst do not collide again
+                    LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(attempt * 1_000_000L));
+                }
+            }
+            CardBalanceView current = cardsRepository.findBalanceByCardNumber(cardNumber).orElseThrow(
+                    () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+            throw new CardBalanceException(declinedMessage.apply(current));
+        });
+    }
+
 }
@@ -10,5 +10,31 @@ CREATE TABLE IF NOT EXISTS `cards` (
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint DEFAULT 0 NOT NULL,
   PRIMARY KEY (`card_id`)
-);
\ No newline at end of file
+);
+
+-- Optimistic locking version (BaseEntity.version), also the ETag of /api/fetch; existing rows start at 0.
+ALTER TABLE `cards` ADD COLUMN IF NOT EXISTS `version` bigint DEFAULT 0 NOT NULL;
+
+-- Last authorization log segment CardLedger added to the cards table, moved in the same transaction as the balances,
+-- so a segment left on disk by a crash is replayed exactly once.
+CREATE TABLE IF NOT EXISTS `card_ledger_checkpoint` (
+  `id` int NOT NULL,
+  `segment` bigint NOT NULL,
+  PRIMARY KEY (`id`)
+);
+INSERT INTO `card_ledger_checkpoint` (`id`, `segment`)
+  SELECT 1, 0 WHERE NOT EXISTS (SELECT 1 FROM `card_ledger_checkpoint`);
+
+-- Card numbers are an 11-digit payload plus a Luhn check digit, the payloads allocated in blocks of 50 (see
+-- CardNumberAllocator). Numbering starts above the 100000000000..100899999999 range the old random generator drew
+-- from, so it cannot hit legacy rows.
+CREATE SEQUENCE IF NOT EXISTS card_number_seq START WITH 10090000000 INCREMENT BY 50;
+
+-- Duplicate mobile or card numbers left behind by the old check-then-insert create path make these statements fail,
+-- and startup with them: which card is the real one is for an operator to decide, not a startup script. List them with
+-- SELECT mobile_number, COUNT(*) FROM cards GROUP BY mobile_number HAVING COUNT(*) > 1 (and the same for card_number)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_cards_mobile_number ON `cards` (`mobile_number`);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_cards_card_number ON `cards` (`card_number`);
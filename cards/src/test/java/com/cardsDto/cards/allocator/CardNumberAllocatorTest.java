@@ -0,0 +1,109 @@
+package com.cardsDto.cards.allocator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.init.ScriptStatementFailedException;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 500;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testLuhnCheckDigit() {
+        assertEquals(3, CardNumberAllocator.luhnCheckDigit(7992739871L));
+        assertEquals("79927398713", CardNumberAllocator.number(7992739871L));
+        assertTrue(CardNumberAllocator.isLuhnValid("4539578763621486"));
+        assertFalse(CardNumberAllocator.isLuhnValid("4539578763621487"));
+        assertFalse(CardNumberAllocator.isLuhnValid("45395787636214a6"));
+    }
+
+    @Test
+    public void testConcurrentAllocations_UniqueAndLuhnValid() throws Exception {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        CardNumberAllocator allocator = new CardNumberAllocator(jdbcTemplate);
+
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int j = 0; j < NUMBERS_PER_THREAD; j++) {
+                        numbers.add(allocator.next());
+                    }
+                    return numbers;
+                }));
+            }
+        }
+
+        Set<String> numbers = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get());
+        }
+        assertEquals(THREADS * NUMBERS_PER_THREAD, numbers.size());
+        for (String number : numbers) {
+            assertEquals(12, number.length());
+            assertTrue(Long.parseLong(number) >= 100900000000L);
+            assertTrue(CardNumberAllocator.isLuhnValid(number));
+        }
+    }
+
+    @Test
+    public void testSchema_RefusesLegacyDuplicates() {
+        jdbcTemplate.execute("CREATE TABLE cards (card_id int NOT NULL AUTO_INCREMENT PRIMARY KEY, " +
+                "mobile_number varchar(15) NOT NULL, card_number varchar(100) NOT NULL, card_type varchar(100) NOT NULL, " +
+                "total_limit int NOT NULL, amount_used int NOT NULL, available_amount int NOT NULL, created_at date NOT NULL, " +
+                "created_by varchar(20) NOT NULL, updated_at date DEFAULT NULL, updated_by varchar(20) DEFAULT NULL)");
+        insertCard("1234567890", "100646930341");
+        insertCard("1234567890", "100646930342");
+
+        assertThrows(ScriptStatementFailedException.class,
+                () -> new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM cards", Integer.class));
+    }
+
+    @Test
+    public void testSchema_UniqueIndexes() {
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        insertCard("1234567890", "100646930341");
+
+        assertThrows(Exception.class, () -> insertCard("1234567891", "100646930341"));
+        assertThrows(Exception.class, () -> insertCard("1234567890", "100646930342"));
+    }
+
+    private void insertCard(String mobileNumber, String cardNumber) {
+        jdbcTemplate.update("INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, " +
+                "available_amount, created_at, created_by) VALUES (?, ?, 'Credit Card', 1000, 0, 1000, CURRENT_DATE, 'test')",
+                mobileNumber, cardNumber);
+    }
+}
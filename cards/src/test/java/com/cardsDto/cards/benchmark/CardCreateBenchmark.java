@@ -0,0 +1,127 @@
+package com.cardsDto.cards.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ * Card creation on the shipped schema.sql, eight threads at once. With duplicates=1 every mobile number is new, which
+ * is plain create throughput; with duplicates=8 each number is requested eight times in a row by whichever threads get
+ * there, a storm of repeated creates. check-then-insert is the create path before insert-on-conflict: look the number
+ * up, insert when it was not found, and still lose to ux_cards_mobile_number when another thread inserted in between
+ * (the raced counter). insert is the single statement createCard runs now, the unique index rejecting the duplicates.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CardCreateBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CardCreateBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:create;DB_CLOSE_DELAY=-1";
+    private static final String INSERT = "INSERT INTO cards (mobile_number, card_number, card_type, total_limit, "
+            + "amount_used, available_amount, created_at, created_by) VALUES (?, ?, 'Credit Card', 100000, 0, 100000, "
+            + "CURRENT_DATE, 'BENCHMARK')";
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({"1", "8"})
+        public int duplicates;
+
+        private final AtomicLong requests = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql"))
+                    .execute(new DriverManagerDataSource(URL, "sa", ""));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            }
+        }
+
+        long nextMobileNumber() {
+            return 6000000000L + requests.getAndIncrement() / duplicates;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Session {
+
+        public long created;
+        public long rejected;
+        public long raced;
+
+        private Connection connection;
+        private PreparedStatement find;
+        private PreparedStatement insert;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "");
+            find = connection.prepareStatement("SELECT card_id FROM cards WHERE mobile_number = ?");
+            insert = connection.prepareStatement(INSERT);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+
+        boolean insert(long mobileNumber) throws SQLException {
+            insert.setString(1, Long.toString(mobileNumber));
+            // unique per mobile number, so only the mobile number index can reject the row
+            insert.setString(2, Long.toString(100000000000L + mobileNumber));
+            try {
+                insert.executeUpdate();
+                created++;
+                return true;
+            } catch (SQLIntegrityConstraintViolationException e) {
+                rejected++;
+                return false;
+            }
+        }
+    }
+
+    @Benchmark
+    public boolean checkThenInsert(Database database, Session session) throws SQLException {
+        long mobileNumber = database.nextMobileNumber();
+        session.find.setString(1, Long.toString(mobileNumber));
+        try (ResultSet resultSet = session.find.executeQuery()) {
+            if (resultSet.next()) {
+                session.rejected++;
+                return false;
+            }
+        }
+        if (!session.insert(mobileNumber)) {
+            session.raced++;
+            return false;
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean insert(Database database, Session session) throws SQLException {
+        return session.insert(database.nextMobileNumber());
+    }
+}
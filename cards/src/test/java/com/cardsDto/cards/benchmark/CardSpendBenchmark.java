@@ -0,0 +1,132 @@
+package com.cardsDto.cards.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Spends under contention on the shipped schema.sql, eight threads on one hot card or spread over 64. read-modify-write
+ * is the update path before the single-statement spend: read the card, then write the new amounts back under the
+ * @Version check, starting over when another spend committed in between (the retries counter). conditional-update is
+ * CardsBalanceRepositoryImpl's one statement, which returns the new amounts and never needs a retry.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CardSpendBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CardSpendBenchmark {
+
+    private static final String URL = "jdbc:h2:mem:spend;DB_CLOSE_DELAY=-1";
+
+    @State(Scope.Benchmark)
+    public static class Database {
+
+        @Param({"1", "64"})
+        public int cards;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            DriverManagerDataSource dataSource = new DriverManagerDataSource(URL, "sa", "");
+            new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                statement.execute("INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, "
+                        + "available_amount, created_at, created_by) SELECT CAST(6000000000 + X AS VARCHAR), "
+                        + "CAST(100000000000 + X AS VARCHAR), 'Credit Card', " + Integer.MAX_VALUE + ", 0, "
+                        + Integer.MAX_VALUE + ", CURRENT_DATE, 'BENCHMARK' FROM SYSTEM_RANGE(1, " + cards + ")");
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            }
+        }
+
+        String randomCardNumber() {
+            return Long.toString(100000000000L + ThreadLocalRandom.current().nextInt(1, cards + 1));
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Session {
+
+        public long retries;
+
+        private Connection connection;
+        private PreparedStatement read;
+        private PreparedStatement write;
+        private PreparedStatement spend;
+
+        @Setup(Level.Iteration)
+        public void setUp() throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "");
+            read = connection.prepareStatement("SELECT card_id, amount_used, available_amount, version FROM cards WHERE card_number = ?");
+            write = connection.prepareStatement("UPDATE cards SET amount_used = ?, available_amount = ?, version = version + 1 "
+                    + "WHERE card_id = ? AND version = ?");
+            spend = connection.prepareStatement("SELECT amount_used, available_amount FROM FINAL TABLE ("
+                    + "UPDATE cards SET amount_used = amount_used + ?, available_amount = available_amount - ?, version = version + 1 "
+                    + "WHERE card_number = ? AND available_amount >= ?)");
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int readModifyWrite(Database database, Session session) throws SQLException {
+        String cardNumber = database.randomCardNumber();
+        while (true) {
+            session.read.setString(1, cardNumber);
+            long cardId;
+            int amountUsed;
+            int availableAmount;
+            long version;
+            try (ResultSet resultSet = session.read.executeQuery()) {
+                resultSet.next();
+                cardId = resultSet.getLong(1);
+                amountUsed = resultSet.getInt(2);
+                availableAmount = resultSet.getInt(3);
+                version = resultSet.getLong(4);
+            }
+            session.write.setInt(1, amountUsed + 1);
+            session.write.setInt(2, availableAmount - 1);
+            session.write.setLong(3, cardId);
+            session.write.setLong(4, version);
+            if (session.write.executeUpdate() == 1) {
+                return availableAmount - 1;
+            }
+            session.retries++;
+        }
+    }
+
+    @Benchmark
+    public int conditionalUpdate(Database database, Session session) throws SQLException {
+        session.spend.setInt(1, 1);
+        session.spend.setInt(2, 1);
+        session.spend.setString(3, database.randomCardNumber());
+        session.spend.setInt(4, 1);
+        try (ResultSet resultSet = session.spend.executeQuery()) {
+            resultSet.next();
+            return resultSet.getInt(2);
+        }
+    }
+}
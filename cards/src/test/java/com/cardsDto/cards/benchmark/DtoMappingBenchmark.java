@@ -0,0 +1,66 @@
+package com.cardsDto.cards.benchmark;
+
+import com.cardsDto.cards.dto.CardsDto;
+import com.cardsDto.cards.entity.Cards;
+import com.cardsDto.cards.mapper.CardsMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Baseline cost of the per-response work outside the database: CardsMapper in both directions and Jackson (configured
+ * like Spring Boot's ObjectMapper) turning CardsDto into JSON and back. Run it with the GC profiler to see bytes
+ * allocated per operation next to the throughput.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DtoMappingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoMappingBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Cards cards;
+    private CardsDto cardsDto;
+    private byte[] cardsJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        cardsDto = new CardsDto();
+        cardsDto.setMobileNumber("1234567890");
+        cardsDto.setCardNumber("100646930341");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100000);
+        cardsDto.setAmountUsed(1000);
+        cardsDto.setAvailableAmount(99000);
+        cards = CardsMapper.mapToCards(cardsDto, new Cards());
+        cardsJson = objectMapper.writeValueAsBytes(cardsDto);
+    }
+
+    @Benchmark
+    public CardsDto mapToCardsDto() {
+        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public Cards mapToCards() {
+        return CardsMapper.mapToCards(cardsDto, new Cards());
+    }
+
+    @Benchmark
+    public byte[] serializeCardsDto() throws IOException {
+        return objectMapper.writeValueAsBytes(cardsDto);
+    }
+
+    @Benchmark
+    public CardsDto deserializeCardsDto() throws IOException {
+        return objectMapper.readValue(cardsJson, CardsDto.class);
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.*;
 
 import com.cardsDto.cards.constants.CardsConstants;
 import com.cardsDto.cards.controller.CardsController;
+import com.cardsDto.cards.dto.AuthorizationDto;
 import com.cardsDto.cards.dto.CardsDto;
 import com.cardsDto.cards.dto.ResponseDto;
 import com.cardsDto.cards.service.ICardsService;
@@ -70,7 +71,7 @@ public class CardsControllerTests {
 
         when(iCardsService.fetchCard(anyString())).thenReturn(cardsDto);
 
-        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber);
+        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -79,6 +80,41 @@ public class CardsControllerTests {
         verify(iCardsService, times(1)).fetchCard(mobileNumber);
     }
 
+    @Test
+    @Operation(summary = "Fetch unchanged card details", description = "Endpoint to answer a conditional fetch without the details.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "304", description = "Not modified")
+    })
+    public void testFetchCardDetails_NotModified() {
+        String mobileNumber = "1234567890";
+        when(iCardsService.fetchCardVersion(mobileNumber)).thenReturn("5.2");
+
+        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber, "\"5.1\", \"5.2\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"5.2\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(iCardsService, never()).fetchCard(anyString());
+    }
+
+    @Test
+    @Operation(summary = "Fetch card details with a malformed ETag", description = "Endpoint to ignore an If-None-Match value that is not an entity tag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CardsDto.class)))
+    })
+    public void testFetchCardDetails_UnquotedETagDoesNotMatch() {
+        String mobileNumber = "1234567890";
+        CardsDto cardsDto = new CardsDto();
+        cardsDto.setVersion("5.2");
+        when(iCardsService.fetchCardVersion(mobileNumber)).thenReturn("5.2");
+        when(iCardsService.fetchCard(mobileNumber)).thenReturn(cardsDto);
+
+        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber, "5.2");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(cardsDto, response.getBody());
+    }
+
     @Test
     @Operation(summary = "Update card details", description = "Endpoint to update card details.")
     @ApiResponses(value = {
@@ -121,6 +157,48 @@ public class CardsControllerTests {
         verify(iCardsService, times(1)).deleteCard(mobileNumber);
     }
 
+    @Test
+    @Operation(summary = "Authorize card", description = "Endpoint to take an amount from the available amount of a card.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthorizationDto.class))),
+            @ApiResponse(responseCode = "422", description = "Available amount too low", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    public void testAuthorize_Success() {
+        String cardNumber = "100646930341";
+        AuthorizationDto authorizationDto = new AuthorizationDto(cardNumber, 250, 1250, 98750);
+
+        when(iCardsService.authorize(cardNumber, 250)).thenReturn(authorizationDto);
+
+        ResponseEntity<AuthorizationDto> response = cardsController.authorize(cardNumber, 250);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(authorizationDto, response.getBody());
+
+        verify(iCardsService, times(1)).authorize(cardNumber, 250);
+    }
+
+    @Test
+    @Operation(summary = "Spend with card", description = "Endpoint to move an amount from the available amount to the amount used of a card.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK", content = @Content(mediaType = "application/json", schema = @Schema(implementation = AuthorizationDto.class))),
+            @ApiResponse(responseCode = "422", description = "Available amount too low", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ResponseDto.class)))
+    })
+    public void testSpend_Success() {
+        String cardNumber = "100646930341";
+        AuthorizationDto authorizationDto = new AuthorizationDto(cardNumber, 400, 1400, 98600);
+
+        when(iCardsService.spend(cardNumber, 400)).thenReturn(authorizationDto);
+
+        ResponseEntity<AuthorizationDto> response = cardsController.spend(cardNumber, 400);
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(authorizationDto, response.getBody());
+
+        verify(iCardsService, times(1)).spend(cardNumber, 400);
+    }
+
     @Test
     @Operation(summary = "Fetch card details unsuccessfully", description = "Endpoint to fetch card details for a given mobile number when no card details are found.")
     @ApiResponses(value = {
@@ -132,7 +210,7 @@ public class CardsControllerTests {
 
         when(iCardsService.fetchCard(anyString())).thenReturn(null); // Simulating that no card details were found
 
-        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber);
+        ResponseEntity<CardsDto> response = cardsController.fetchAccountDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
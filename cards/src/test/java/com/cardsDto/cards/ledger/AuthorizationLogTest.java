@@ -0,0 +1,84 @@
+package com.cardsDto.cards.ledger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthorizationLogTest {
+
+    private static final int THREADS = 8;
+    private static final int APPENDS_PER_THREAD = 500;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testConcurrentAppends_SealSumsEveryDurableRecord() throws Exception {
+        AuthorizationLog log = new AuthorizationLog(directory, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            long cardId = t % 2 + 1;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < APPENDS_PER_THREAD; i++) {
+                    log.append(cardId, 3).join();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        AuthorizationLog.Segment segment = log.seal().join();
+        assertEquals(1, segment.number());
+        assertEquals(3L * APPENDS_PER_THREAD * THREADS / 2, segment.deltas().get(1L));
+        assertEquals(3L * APPENDS_PER_THREAD * THREADS / 2, segment.deltas().get(2L));
+        assertEquals((long) AuthorizationLog.RECORD_BYTES * APPENDS_PER_THREAD * THREADS, Files.size(segment.file()));
+        assertNull(log.seal().join());
+
+        log.append(1, -7).join();
+        assertEquals(2, log.seal().join().number());
+        log.close();
+    }
+
+    @Test
+    public void testRecover_StopsAtTornRecord() throws Exception {
+        AuthorizationLog log = new AuthorizationLog(directory, 5);
+        log.append(1, 100).join();
+        log.append(2, 40).join();
+        log.append(1, -30).join();
+        log.close();
+
+        Path file = directory.resolve("segment-5.log");
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9}, StandardOpenOption.APPEND);
+
+        List<AuthorizationLog.Segment> segments = AuthorizationLog.recover(directory);
+        assertEquals(1, segments.size());
+        assertEquals(5, segments.get(0).number());
+        assertEquals(70L, segments.get(0).deltas().get(1L));
+        assertEquals(40L, segments.get(0).deltas().get(2L));
+    }
+
+    @Test
+    public void testAppend_AfterCloseFails() {
+        AuthorizationLog log = new AuthorizationLog(directory, 1);
+        log.close();
+
+        CompletableFuture<Void> durable = log.append(1, 10);
+        CompletionException exception = assertThrows(CompletionException.class, durable::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+    }
+}
@@ -0,0 +1,207 @@
+package com.cardsDto.cards.ledger;
+
+import com.cardsDto.cards.dto.AuthorizationDto;
+import com.cardsDto.cards.exception.CardBalanceException;
+import com.cardsDto.cards.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CardLedgerTest {
+
+    private static final String CARD_NUMBER = "100646930341";
+    private static final int THREADS = 8;
+    private static final int AUTHORIZATIONS_PER_THREAD = 200;
+
+    @TempDir
+    Path directory;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO cards (mobile_number, card_number, card_type, total_limit, amount_used, " +
+                "available_amount, created_at, created_by) VALUES ('1234567890', ?, 'Credit Card', 1000, 0, 1000, CURRENT_DATE, 'test')",
+                CARD_NUMBER);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testConcurrentAuthorizations_NeverOverdraw() throws Exception {
+        CardLedger ledger = startLedger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < AUTHORIZATIONS_PER_THREAD; i++) {
+                    try {
+                        ledger.authorize(CARD_NUMBER, 1);
+                        approved.incrementAndGet();
+                    } catch (CardBalanceException e) {
+                        declined.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1000, approved.get());
+        assertEquals(THREADS * AUTHORIZATIONS_PER_THREAD - 1000, declined.get());
+        assertEquals(new CardLedger.CardBalance(1000, 0), ledger.balance(CARD_NUMBER));
+        ledger.close();
+
+        Map<String, Object> row = cardRow();
+        assertEquals(1000, row.get("AMOUNT_USED"));
+        assertEquals(0, row.get("AVAILABLE_AMOUNT"));
+        assertTrue(((Number) row.get("VERSION")).longValue() > 0);
+    }
+
+    @Test
+    public void testReverse_RejectsMoreThanUsed() throws Exception {
+        CardLedger ledger = startLedger();
+        ledger.authorize(CARD_NUMBER, 300);
+
+        AuthorizationDto reversal = ledger.reverse(CARD_NUMBER, 100);
+        assertEquals(-100, reversal.getAmount());
+        assertEquals(200, reversal.getAmountUsed());
+        assertEquals(800, reversal.getAvailableAmount());
+        assertThrows(CardBalanceException.class, () -> ledger.reverse(CARD_NUMBER, 201));
+        assertThrows(ResourceNotFoundException.class, () -> ledger.authorize("999999999999", 1));
+        ledger.close();
+    }
+
+    @Test
+    public void testExclusive_FlushesAndReloadsTheCard() throws Exception {
+        CardLedger ledger = startLedger();
+        ledger.authorize(CARD_NUMBER, 100);
+
+        ledger.exclusive(CARD_NUMBER, () -> {
+            assertEquals(100, cardRow().get("AMOUNT_USED"));
+            return jdbcTemplate.update("UPDATE cards SET total_limit = 500, amount_used = 0, available_amount = 500 WHERE card_number = ?",
+                    CARD_NUMBER);
+        });
+        assertNull(ledger.balance(CARD_NUMBER));
+
+        assertEquals(450, ledger.authorize(CARD_NUMBER, 50).getAvailableAmount());
+        ledger.close();
+        assertEquals(450, cardRow().get("AVAILABLE_AMOUNT"));
+    }
+
+    @Test
+    public void testStart_ReplaysSegmentsAfterTheCheckpointOnce() throws Exception {
+        long cardId = ((Number) cardRow().get("CARD_ID")).longValue();
+        jdbcTemplate.update("UPDATE card_ledger_checkpoint SET segment = 3 WHERE id = 1");
+        AuthorizationLog log = new AuthorizationLog(directory, 3);
+        log.append(cardId, 999).join();
+        log.seal().join();
+        log.append(cardId, 250).join();
+        log.append(cardId, 50).join();
+        // stopped without a flush, as after a crash
+        log.close();
+
+        CardLedger ledger = startLedger();
+        assertEquals(300, cardRow().get("AMOUNT_USED"));
+        assertEquals(700, cardRow().get("AVAILABLE_AMOUNT"));
+        assertEquals(4L, jdbcTemplate.queryForObject("SELECT segment FROM card_ledger_checkpoint", Long.class));
+        try (var files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.getFileName().toString().startsWith("segment-")));
+        }
+        ledger.close();
+
+        startLedger().close();
+        assertEquals(300, cardRow().get("AMOUNT_USED"));
+    }
+
+    @Test
+    public void testFlush_CoalescesChangesIntoOneRowWrite() throws Exception {
+        CardLedger ledger = startLedger(Duration.ofHours(1));
+        for (int i = 0; i < 250; i++) {
+            ledger.authorize(CARD_NUMBER, 3);
+            ledger.reverse(CARD_NUMBER, 1);
+        }
+        assertEquals(0, cardRow().get("AMOUNT_USED"));
+
+        ledger.flush();
+        assertEquals(500, cardRow().get("AMOUNT_USED"));
+        assertEquals(500, cardRow().get("AVAILABLE_AMOUNT"));
+        assertEquals(500L, ledger.report().approved());
+        assertEquals(1L, ledger.report().rowsWritten());
+        ledger.close();
+    }
+
+    @Test
+    public void testExclusive_KeepsTheCardWhenTheFlushFails() throws Exception {
+        CardLedger ledger = startLedger(Duration.ofHours(1));
+        ledger.authorize(CARD_NUMBER, 600);
+        jdbcTemplate.execute("ALTER TABLE card_ledger_checkpoint RENAME TO card_ledger_checkpoint_moved");
+
+        AtomicInteger changes = new AtomicInteger();
+        assertThrows(RuntimeException.class, () -> ledger.exclusive(CARD_NUMBER, changes::incrementAndGet));
+        assertEquals(0, changes.get());
+        assertThrows(RuntimeException.class, () -> ledger.direct(CARD_NUMBER, changes::incrementAndGet));
+        assertEquals(0, changes.get());
+        assertEquals(0, cardRow().get("AMOUNT_USED"));
+
+        // the table still shows 1000 available, but the ledger knows 600 of it is taken
+        assertThrows(CardBalanceException.class, () -> ledger.authorize(CARD_NUMBER, 600));
+        assertEquals(new CardLedger.CardBalance(600, 400), ledger.balance(CARD_NUMBER));
+
+        jdbcTemplate.execute("ALTER TABLE card_ledger_checkpoint_moved RENAME TO card_ledger_checkpoint");
+        ledger.exclusive(CARD_NUMBER, changes::incrementAndGet);
+        assertEquals(1, changes.get());
+        assertEquals(600, cardRow().get("AMOUNT_USED"));
+        assertEquals(0, ledger.authorize(CARD_NUMBER, 400).getAvailableAmount());
+        ledger.close();
+        assertEquals(0, cardRow().get("AVAILABLE_AMOUNT"));
+    }
+
+    private CardLedger startLedger() throws Exception {
+        return startLedger(Duration.ofMillis(50));
+    }
+
+    private CardLedger startLedger(Duration flushInterval) throws Exception {
+        CardLedger ledger = new CardLedger(jdbcTemplate, new DataSourceTransactionManager(dataSource), new SimpleMeterRegistry(),
+                directory.toString(), flushInterval, false);
+        ledger.start();
+        return ledger;
+    }
+
+    private Map<String, Object> cardRow() {
+        return jdbcTemplate.queryForMap("SELECT card_id, amount_used, available_amount, version FROM cards WHERE card_number = ?",
+                CARD_NUMBER);
+    }
+}
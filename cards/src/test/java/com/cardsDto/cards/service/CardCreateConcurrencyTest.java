@@ -0,0 +1,75 @@
+package com.cardsDto.cards.service;
+
+import com.cardsDto.cards.allocator.CardNumberAllocator;
+import com.cardsDto.cards.dto.ErrorResponseDto;
+import com.cardsDto.cards.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CardCreateConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private GlobalExceptionHandler globalExceptionHandler;
+
+    @Test
+    public void testConcurrentDuplicateCreates_OnlyOneSucceeds() throws Exception {
+        String mobileNumber = "6200000001";
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        List<DataIntegrityViolationException> rejected = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        iCardsService.createCard(mobileNumber);
+                        created.incrementAndGet();
+                    } catch (DataIntegrityViolationException e) {
+                        synchronized (rejected) {
+                            rejected.add(e);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, rejected.size());
+        assertTrue(CardNumberAllocator.isLuhnValid(iCardsService.fetchCard(mobileNumber).getCardNumber()));
+
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/create");
+        request.setParameter("mobileNumber", mobileNumber);
+        ResponseEntity<ErrorResponseDto> response = globalExceptionHandler.handleDataIntegrityViolationException(
+                rejected.get(0), new ServletWebRequest(request));
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("Card already registered with given mobileNumber " + mobileNumber, response.getBody().getErrorMessage());
+    }
+}
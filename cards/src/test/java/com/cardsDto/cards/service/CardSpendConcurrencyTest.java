@@ -0,0 +1,94 @@
+package com.cardsDto.cards.service;
+
+import com.cardsDto.cards.constants.CardsConstants;
+import com.cardsDto.cards.dto.AuthorizationDto;
+import com.cardsDto.cards.dto.CardsDto;
+import com.cardsDto.cards.exception.CardBalanceException;
+import com.cardsDto.cards.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+public class CardSpendConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SPENDS_PER_THREAD = 250;
+    private static final int AMOUNT = 60;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Test
+    public void testConcurrentSpends_NoneLostAndNoneOverdraws() throws Exception {
+        String mobileNumber = "6100000001";
+        iCardsService.createCard(mobileNumber);
+        String cardNumber = iCardsService.fetchCard(mobileNumber).getCardNumber();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        AtomicInteger approved = new AtomicInteger();
+        AtomicInteger declined = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < SPENDS_PER_THREAD; i++) {
+                    try {
+                        iCardsService.spend(cardNumber, AMOUNT);
+                        approved.incrementAndGet();
+                    } catch (CardBalanceException e) {
+                        declined.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        int expectedApproved = CardsConstants.NEW_CARD_LIMIT / AMOUNT;
+        assertEquals(expectedApproved, approved.get());
+        assertEquals(THREADS * SPENDS_PER_THREAD - expectedApproved, declined.get());
+        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+        assertEquals(expectedApproved * AMOUNT, cardsDto.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - expectedApproved * AMOUNT, cardsDto.getAvailableAmount());
+    }
+
+    @Test
+    public void testRepay_ReturnsNewBalanceAndRejectsMoreThanUsed() {
+        String mobileNumber = "6100000002";
+        iCardsService.createCard(mobileNumber);
+        String cardNumber = iCardsService.fetchCard(mobileNumber).getCardNumber();
+
+        iCardsService.spend(cardNumber, 500);
+        AuthorizationDto repayment = iCardsService.repay(cardNumber, 200);
+
+        assertEquals(-200, repayment.getAmount());
+        assertEquals(300, repayment.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 300, repayment.getAvailableAmount());
+        assertThrows(CardBalanceException.class, () -> iCardsService.repay(cardNumber, 301));
+        assertThrows(ResourceNotFoundException.class, () -> iCardsService.spend("999999999999", 1));
+    }
+
+    @Test
+    public void testSpend_AfterAuthorizationSeesTheLedgerBalance() {
+        String mobileNumber = "6100000003";
+        iCardsService.createCard(mobileNumber);
+        String cardNumber = iCardsService.fetchCard(mobileNumber).getCardNumber();
+
+        iCardsService.authorize(cardNumber, 1000);
+        AuthorizationDto spend = iCardsService.spend(cardNumber, 500);
+
+        assertEquals(1500, spend.getAmountUsed());
+        assertEquals(1501, iCardsService.authorize(cardNumber, 1).getAmountUsed());
+    }
+}
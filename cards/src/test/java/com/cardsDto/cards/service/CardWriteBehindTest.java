@@ -0,0 +1,54 @@
+package com.cardsDto.cards.service;
+
+import com.cardsDto.cards.constants.CardsConstants;
+import com.cardsDto.cards.dto.CardsDto;
+import com.cardsDto.cards.exception.CardBalanceException;
+import com.cardsDto.cards.ledger.CardLedger;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// a ledger directory of its own, since the default context of the other tests keeps the shared one locked
+@SpringBootTest(properties = {"cards.ledger.write-behind=true", "cards.ledger.flush-interval=1h",
+        "cards.ledger.directory=${java.io.tmpdir}/cards-ledger-write-behind"})
+public class CardWriteBehindTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private CardLedger cardLedger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testSpends_ReadBackBeforeTheFlushAndWrittenOnce() {
+        String mobileNumber = "6300000001";
+        iCardsService.createCard(mobileNumber);
+        String cardNumber = iCardsService.fetchCard(mobileNumber).getCardNumber();
+        long rowsWritten = cardLedger.report().rowsWritten();
+
+        for (int i = 0; i < 100; i++) {
+            iCardsService.spend(cardNumber, 10);
+        }
+        iCardsService.repay(cardNumber, 200);
+        assertThrows(CardBalanceException.class, () -> iCardsService.repay(cardNumber, 801));
+
+        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
+        assertEquals(800, cardsDto.getAmountUsed());
+        assertEquals(CardsConstants.NEW_CARD_LIMIT - 800, cardsDto.getAvailableAmount());
+        assertEquals(0, amountUsed(cardNumber));
+
+        cardLedger.flush();
+        assertEquals(800, amountUsed(cardNumber));
+        assertEquals(rowsWritten + 1, cardLedger.report().rowsWritten());
+    }
+
+    private int amountUsed(String cardNumber) {
+        return jdbcTemplate.queryForObject("SELECT amount_used FROM cards WHERE card_number = ?", Integer.class, cardNumber);
+    }
+}
@@ -0,0 +1,37 @@
+package com.loadgenDto.loadgen;
+
+import org.HdrHistogram.HistogramLogWriter;
+
+/**
+ * Runs an open-model load against one service, stepping through the offered rates, and writes HdrHistogram reports.
+ *
+ * java -jar target/loadgen-0.0.1-SNAPSHOT.jar --service=accounts --rates=50,100,200,400 --duration=60 --label=3.0
+ *
+ * Options (see LoadOptions): service, base-url, rates, warmup and duration (seconds), mix (e.g.
+ * create:10,fetch:70,update:15,delete:5), preload, timeout-ms, first-mobile, seed, label, output.
+ */
+public class LoadGeneratorApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        ReportWriter reports = new ReportWriter(options);
+        try (OpenLoopRunner runner = new OpenLoopRunner(options)) {
+            runner.preload();
+            System.out.println("Preloaded " + runner.getPreloaded() + " customers into " + options.baseUrl());
+            for (int rate : options.rates()) {
+                if (!options.warmup().isZero()) {
+                    runner.run(rate, options.warmup(), null);
+                }
+                HistogramLogWriter log = reports.openLog(rate);
+                StepResult result;
+                try {
+                    result = runner.run(rate, options.duration(), log);
+                } finally {
+                    log.close();
+                }
+                reports.write(result, System.out);
+            }
+        }
+        System.out.println("Reports written to " + options.outputDirectory().toAbsolutePath());
+    }
+}
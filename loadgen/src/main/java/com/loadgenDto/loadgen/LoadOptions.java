@@ -0,0 +1,63 @@
+package com.loadgenDto.loadgen;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Command line options, given as --name=value.
+ *
+ * @param service        - accounts, cards or loans
+ * @param baseUrl        - defaults to the service's local port
+ * @param rates          - offered request rates in requests per second, run one after another
+ * @param warmup         - load at each rate before measuring, discarded
+ * @param duration       - measured time at each rate
+ * @param mix            - relative weight of each operation
+ * @param preload        - customers created before the run for fetch and update to work on
+ * @param timeout        - per request; a request that times out counts as an error
+ * @param firstMobileNumber - first of the mobile numbers this run creates
+ * @param seed           - seed of the operation and key choices, so runs are repeatable
+ * @param label          - release or build under test, used in report file names
+ * @param outputDirectory - where reports are written
+ */
+public record LoadOptions(TargetService service, String baseUrl, int[] rates, Duration warmup, Duration duration,
+                          Map<Operation, Integer> mix, int preload, Duration timeout, long firstMobileNumber,
+                          long seed, String label, Path outputDirectory) {
+
+    public static LoadOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        TargetService service = TargetService.valueOf(values.getOrDefault("service", "accounts").toUpperCase());
+        return new LoadOptions(
+                service,
+                values.getOrDefault("base-url", "http://localhost:" + service.defaultPort()),
+                Arrays.stream(values.getOrDefault("rates", "50,100,200,400").split(",")).mapToInt(Integer::parseInt).toArray(),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                parseMix(values.getOrDefault("mix", "create:10,fetch:70,update:15,delete:5")),
+                Integer.parseInt(values.getOrDefault("preload", "1000")),
+                Duration.ofMillis(Long.parseLong(values.getOrDefault("timeout-ms", "10000"))),
+                Long.parseLong(values.getOrDefault("first-mobile", Long.toString(6_000_000_000L + ThreadLocalRandom.current().nextLong(3_000_000_000L)))),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("label", "current"),
+                Path.of(values.getOrDefault("output", "target/loadgen-reports")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,224 @@
+package com.loadgenDto.loadgen;
+
+import com.loadgenDto.loadgen.TargetService.Customer;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests start on a fixed schedule, rate per second, whether or not earlier ones have answered.
+ * A closed loop of clients waits for each response before sending again, so when the service stalls it also stops
+ * sending and the stall shows up as a handful of slow samples instead of every request that should have been sent
+ * meanwhile (coordinated omission). Each request runs on its own virtual thread and its latency is measured from its
+ * scheduled start.
+ */
+public class OpenLoopRunner implements AutoCloseable {
+
+    private static final int PRELOAD_CONCURRENCY = 32;
+
+    private final LoadOptions options;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final HttpClient httpClient;
+    private final SplittableRandom random;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final List<Customer> customers = Collections.synchronizedList(new ArrayList<>());
+    private final ConcurrentLinkedQueue<String> created = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextMobileNumber;
+    private final AtomicInteger revision = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public OpenLoopRunner(LoadOptions options) {
+        this.options = options;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(options.timeout())
+                .executor(executor)
+                .build();
+        this.random = new SplittableRandom(options.seed());
+        this.nextMobileNumber = new AtomicLong(options.firstMobileNumber());
+        this.operations = options.mix().keySet().toArray(Operation[]::new);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += options.mix().get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Creates the customers that fetch and update work on, and reads back the number of each one's account, card or
+     * loan.
+     */
+    public void preload() throws InterruptedException {
+        Semaphore permits = new Semaphore(PRELOAD_CONCURRENCY);
+        TargetService service = options.service();
+        for (int i = 0; i < options.preload(); i++) {
+            String mobileNumber = Long.toString(nextMobileNumber.getAndIncrement());
+            permits.acquire();
+            executor.execute(() -> {
+                try {
+                    HttpResponse<Void> createResponse = httpClient.send(build(service.create(options.baseUrl(), mobileNumber)), HttpResponse.BodyHandlers.discarding());
+                    if (createResponse.statusCode() < 300) {
+                        HttpResponse<String> fetched = httpClient.send(build(service.fetch(options.baseUrl(), mobileNumber)), HttpResponse.BodyHandlers.ofString());
+                        String number = fetched.statusCode() < 300 ? service.numberOf(fetched.body()) : null;
+                        if (number != null) {
+                            customers.add(new Customer(mobileNumber, number));
+                        }
+                    }
+                } catch (IOException | InterruptedException e) {
+                    // the customer is left out of the preloaded set
+                } finally {
+                    permits.release();
+                }
+            });
+        }
+        permits.acquire(PRELOAD_CONCURRENCY);
+        permits.release(PRELOAD_CONCURRENCY);
+        if (customers.isEmpty() && (options.mix().getOrDefault(Operation.FETCH, 0) > 0 || options.mix().getOrDefault(Operation.UPDATE, 0) > 0)) {
+            throw new IllegalStateException("No customer could be preloaded from " + options.baseUrl());
+        }
+        customers.sort((a, b) -> a.mobileNumber().compareTo(b.mobileNumber()));
+    }
+
+    public int getPreloaded() {
+        return customers.size();
+    }
+
+    /**
+     * @param rate     - requests started per second
+     * @param duration - how long to keep starting requests
+     * @param log      - receives one interval histogram per operation and second, may be null
+     * @return latencies and failures of the requests started during the step
+     */
+    public StepResult run(int rate, Duration duration, HistogramLogWriter log) throws InterruptedException {
+        StepResult result = new StepResult(rate, duration);
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        if (log != null) {
+            log.outputStartTime(System.currentTimeMillis());
+            log.setBaseTime(System.currentTimeMillis());
+        }
+        Thread sampler = Thread.ofPlatform().daemon().start(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                result.sampleInterval(log);
+            }
+        });
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + (long) (i * 1e9 / rate);
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            dispatch(nextOperation(), scheduled, result);
+        }
+
+        long deadline = System.nanoTime() + options.timeout().toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        sampler.interrupt();
+        sampler.join();
+        result.sampleInterval(log);
+        return result;
+    }
+
+    @Override
+    public void close() {
+        httpClient.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    private Operation nextOperation() {
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < operations.length; i++) {
+            if (pick < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    /**
+     * Picks the target on the scheduling thread, so a given seed produces the same sequence of calls, and sends it on
+     * a new virtual thread.
+     */
+    private void dispatch(Operation operation, long scheduled, StepResult result) {
+        TargetService service = options.service();
+        String baseUrl = options.baseUrl();
+        String mobileNumber = null;
+        HttpRequest.Builder request;
+        switch (operation) {
+            case CREATE -> {
+                mobileNumber = Long.toString(nextMobileNumber.getAndIncrement());
+                request = service.create(baseUrl, mobileNumber);
+            }
+            case FETCH -> request = service.fetch(baseUrl, randomCustomer().mobileNumber());
+            case UPDATE -> request = service.update(baseUrl, randomCustomer(), revision.incrementAndGet());
+            case DELETE -> {
+                String createdMobileNumber = created.poll();
+                if (createdMobileNumber == null) {
+                    result.skip(operation);
+                    return;
+                }
+                request = service.delete(baseUrl, createdMobileNumber);
+            }
+            default -> throw new IllegalStateException("Unexpected operation " + operation);
+        }
+        String createdMobileNumber = mobileNumber;
+        HttpRequest httpRequest = build(request);
+        inFlight.incrementAndGet();
+        executor.execute(() -> {
+            long sent = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                long received = System.nanoTime();
+                if (response.statusCode() < 300) {
+                    result.record(operation, received - scheduled, received - sent);
+                    if (createdMobileNumber != null) {
+                        created.add(createdMobileNumber);
+                    }
+                } else {
+                    result.error(operation, response.statusCode());
+                }
+            } catch (IOException | InterruptedException e) {
+                result.error(operation, 0);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private Customer randomCustomer() {
+        return customers.get(random.nextInt(customers.size()));
+    }
+
+    private HttpRequest build(HttpRequest.Builder builder) {
+        return builder.timeout(options.timeout()).build();
+    }
+}
@@ -0,0 +1,9 @@
+package com.loadgenDto.loadgen;
+
+public enum Operation {
+    CREATE, FETCH, UPDATE, DELETE;
+
+    public String label() {
+        return name().toLowerCase();
+    }
+}
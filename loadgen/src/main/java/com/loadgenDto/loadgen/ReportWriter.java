@@ -0,0 +1,80 @@
+package com.loadgenDto.loadgen;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * Writes, per rate step, a .hgrm percentile distribution for every operation (plottable with HdrHistogram's
+ * plotFiles.html, one file per release to compare) and a .hlog interval log of one histogram per operation and
+ * second; and appends one line per step and operation to a CSV summary, which plotted over the offered rate is the
+ * throughput curve of the release.
+ */
+public class ReportWriter {
+
+    private static final double NANOS_PER_MILLI = 1e6;
+    private static final String SUMMARY_HEADER = "label,service,offered_rps,operation,requests,errors,skipped,achieved_rps,"
+            + "p50_ms,p90_ms,p99_ms,p99_9_ms,max_ms,service_p99_ms";
+
+    private final LoadOptions options;
+    private final String prefix;
+
+    public ReportWriter(LoadOptions options) {
+        this.options = options;
+        this.prefix = options.label() + "-" + options.service().name().toLowerCase();
+        try {
+            Files.createDirectories(options.outputDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public HistogramLogWriter openLog(int rate) throws IOException {
+        HistogramLogWriter log = new HistogramLogWriter(options.outputDirectory().resolve(prefix + "-" + rate + "rps.hlog").toFile());
+        log.outputComment("[" + prefix + " at " + rate + " requests/s, response times in ns]");
+        log.outputLogFormatVersion();
+        log.outputLegend();
+        return log;
+    }
+
+    public void write(StepResult result, PrintStream console) throws IOException {
+        Path summary = options.outputDirectory().resolve(prefix + "-summary.csv");
+        if (Files.notExists(summary)) {
+            Files.writeString(summary, SUMMARY_HEADER + System.lineSeparator());
+        }
+        StringBuilder lines = new StringBuilder();
+        double seconds = result.getDuration().toNanos() / 1e9;
+        for (Operation operation : Operation.values()) {
+            Histogram responseTime = result.getResponseTime(operation);
+            long errors = result.getErrors(operation);
+            long skipped = result.getSkipped(operation);
+            if (responseTime.getTotalCount() == 0 && errors == 0 && skipped == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(options.outputDirectory()
+                    .resolve(prefix + "-" + result.getRate() + "rps-" + operation.label() + ".hgrm")))) {
+                responseTime.outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+            String line = String.format(Locale.ROOT, "%s,%s,%d,%s,%d,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%.3f",
+                    options.label(), options.service().name().toLowerCase(), result.getRate(), operation.label(),
+                    responseTime.getTotalCount(), errors, skipped, responseTime.getTotalCount() / seconds,
+                    millis(responseTime, 50), millis(responseTime, 90), millis(responseTime, 99), millis(responseTime, 99.9),
+                    responseTime.getMaxValue() / NANOS_PER_MILLI, millis(result.getServiceTime(operation), 99));
+            lines.append(line).append(System.lineSeparator());
+            console.println(line);
+        }
+        result.getErrorsByStatus().forEach((status, count) -> console.println("  errors " + status + ": " + count.sum()));
+        Files.writeString(summary, lines, StandardOpenOption.APPEND);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+    }
+}
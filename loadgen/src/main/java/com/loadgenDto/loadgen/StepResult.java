@@ -0,0 +1,104 @@
+package com.loadgenDto.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and failures of one rate step, in nanoseconds. Response time runs from the moment the schedule said a
+ * request should start, so time spent waiting behind a stalled service is counted; service time runs from the moment
+ * it was actually sent.
+ */
+public class StepResult {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final int rate;
+    private final Duration duration;
+    private final Map<Operation, Recorder> responseRecorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> responseTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> skipped = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errorsByStatus = new ConcurrentHashMap<>();
+    private final Map<Operation, Histogram> recycled = new EnumMap<>(Operation.class);
+
+    StepResult(int rate, Duration duration) {
+        this.rate = rate;
+        this.duration = duration;
+        for (Operation operation : Operation.values()) {
+            responseRecorders.put(operation, new Recorder(SIGNIFICANT_DIGITS));
+            responseTimes.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+            serviceTimes.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            skipped.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long responseNanos, long serviceNanos) {
+        responseRecorders.get(operation).recordValue(responseNanos);
+        serviceTimes.get(operation).recordValue(serviceNanos);
+    }
+
+    /**
+     * @param status - HTTP status, or 0 when no response arrived
+     */
+    void error(Operation operation, int status) {
+        errors.get(operation).increment();
+        errorsByStatus.computeIfAbsent(operation.label() + " " + (status == 0 ? "no response" : Integer.toString(status)), key -> new LongAdder()).increment();
+    }
+
+    void skip(Operation operation) {
+        skipped.get(operation).increment();
+    }
+
+    /**
+     * Moves what was recorded since the previous call into the step totals, and into the log when there is one.
+     */
+    synchronized void sampleInterval(HistogramLogWriter log) {
+        for (Operation operation : Operation.values()) {
+            Histogram interval = responseRecorders.get(operation).getIntervalHistogram(recycled.get(operation));
+            if (log != null && interval.getTotalCount() > 0) {
+                interval.setTag(operation.label());
+                log.outputIntervalHistogram(interval);
+            }
+            responseTimes.get(operation).add(interval);
+            recycled.put(operation, interval);
+        }
+    }
+
+    public int getRate() {
+        return rate;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Histogram getResponseTime(Operation operation) {
+        return responseTimes.get(operation);
+    }
+
+    public Histogram getServiceTime(Operation operation) {
+        return serviceTimes.get(operation);
+    }
+
+    public long getErrors(Operation operation) {
+        return errors.get(operation).sum();
+    }
+
+    public long getSkipped(Operation operation) {
+        return skipped.get(operation).sum();
+    }
+
+    public Map<String, LongAdder> getErrorsByStatus() {
+        return errorsByStatus;
+    }
+}
@@ -0,0 +1,99 @@
+package com.loadgenDto.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The /api endpoints of each service. Customers are identified by mobile number; update also needs the account, card
+ * or loan number, which is read from a fetch of the preloaded customer.
+ */
+public enum TargetService {
+
+    ACCOUNTS(8080, Pattern.compile("\"accountNumber\":(\\d+)")) {
+        @Override
+        HttpRequest.Builder create(String baseUrl, String mobileNumber) {
+            return json(baseUrl + "/api/create").POST(HttpRequest.BodyPublishers.ofString(
+                    "{\"name\":\"Load " + mobileNumber + "\",\"email\":\"load" + mobileNumber + "@bank.com\",\"mobileNumber\":\"" + mobileNumber + "\"}"));
+        }
+
+        @Override
+        HttpRequest.Builder update(String baseUrl, Customer customer, int revision) {
+            return json(baseUrl + "/api/update").PUT(HttpRequest.BodyPublishers.ofString(
+                    "{\"name\":\"Load " + revision + "\",\"email\":\"load" + customer.mobileNumber() + "@bank.com\",\"mobileNumber\":\"" + customer.mobileNumber()
+                            + "\",\"accountsDto\":{\"accountNumber\":" + customer.number() + ",\"accountType\":\"Savings\",\"branchAddress\":\"123 Main Street, New York\"}}"));
+        }
+    },
+
+    CARDS(9000, Pattern.compile("\"cardNumber\":\"(\\d+)\"")) {
+        @Override
+        HttpRequest.Builder create(String baseUrl, String mobileNumber) {
+            return json(baseUrl + "/api/create?mobileNumber=" + mobileNumber).POST(HttpRequest.BodyPublishers.noBody());
+        }
+
+        @Override
+        HttpRequest.Builder update(String baseUrl, Customer customer, int revision) {
+            int amountUsed = revision % 100_000;
+            return json(baseUrl + "/api/update").PUT(HttpRequest.BodyPublishers.ofString(
+                    "{\"mobileNumber\":\"" + customer.mobileNumber() + "\",\"cardNumber\":\"" + customer.number() + "\",\"cardType\":\"Credit Card\","
+                            + "\"totalLimit\":100000,\"amountUsed\":" + amountUsed + ",\"availableAmount\":" + (100_000 - amountUsed) + "}"));
+        }
+    },
+
+    LOANS(8090, Pattern.compile("\"loanNumber\":\"(\\d+)\"")) {
+        @Override
+        HttpRequest.Builder create(String baseUrl, String mobileNumber) {
+            return json(baseUrl + "/api/create?mobileNumber=" + mobileNumber).POST(HttpRequest.BodyPublishers.noBody());
+        }
+
+        @Override
+        HttpRequest.Builder update(String baseUrl, Customer customer, int revision) {
+            int amountPaid = revision % 100_000;
+            return json(baseUrl + "/api/update").PUT(HttpRequest.BodyPublishers.ofString(
+                    "{\"mobileNumber\":\"" + customer.mobileNumber() + "\",\"loanNumber\":\"" + customer.number() + "\",\"loanType\":\"Home Loan\","
+                            + "\"totalLoan\":100000,\"amountPaid\":" + amountPaid + ",\"outstandingAmount\":" + (100_000 - amountPaid) + "}"));
+        }
+    };
+
+    /** A preloaded customer and the number of its account, card or loan. */
+    public record Customer(String mobileNumber, String number) {
+    }
+
+    private final int defaultPort;
+    private final Pattern numberPattern;
+
+    TargetService(int defaultPort, Pattern numberPattern) {
+        this.defaultPort = defaultPort;
+        this.numberPattern = numberPattern;
+    }
+
+    public int defaultPort() {
+        return defaultPort;
+    }
+
+    abstract HttpRequest.Builder create(String baseUrl, String mobileNumber);
+
+    abstract HttpRequest.Builder update(String baseUrl, Customer customer, int revision);
+
+    HttpRequest.Builder fetch(String baseUrl, String mobileNumber) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/fetch?mobileNumber=" + mobileNumber)).GET();
+    }
+
+    HttpRequest.Builder delete(String baseUrl, String mobileNumber) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/delete?mobileNumber=" + mobileNumber)).DELETE();
+    }
+
+    /**
+     * @param fetchedBody - response of a fetch
+     * @return the account, card or loan number in it, or null
+     */
+    String numberOf(String fetchedBody) {
+        Matcher matcher = numberPattern.matcher(fetchedBody);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static HttpRequest.Builder json(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).header("Content-Type", "application/json");
+    }
+}
@@ -0,0 +1,123 @@
+package com.loadgenDto.loadgen;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpenLoopRunnerTests {
+
+    private HttpServer server;
+    private final AtomicBoolean stalled = new AtomicBoolean();
+
+    @TempDir
+    Path output;
+
+    @BeforeEach
+    void startStubService() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/create", exchange -> respond(exchange, 201, "{\"statusCode\":\"201\"}"));
+        server.createContext("/api/fetch", exchange -> respond(exchange, 200,
+                "{\"name\":\"Load\",\"mobileNumber\":\"6000000000\",\"accountsDto\":{\"accountNumber\":1900000000}}"));
+        server.createContext("/api/update", exchange -> respond(exchange, 200, "{\"statusCode\":\"200\"}"));
+        server.createContext("/api/delete", exchange -> respond(exchange, 200, "{\"statusCode\":\"200\"}"));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubService() {
+        server.stop(0);
+    }
+
+    @Test
+    void runStartsRequestsAtTheOfferedRateAndWritesReports() throws Exception {
+        LoadOptions options = options("--rates=200", "--duration=3");
+        ByteArrayOutputStream console = new ByteArrayOutputStream();
+        StepResult result;
+        try (OpenLoopRunner runner = new OpenLoopRunner(options)) {
+            runner.preload();
+            assertEquals(20, runner.getPreloaded());
+            result = runner.run(200, options.duration(), null);
+            new ReportWriter(options).write(result, new PrintStream(console));
+        }
+
+        long sent = 0;
+        for (Operation operation : Operation.values()) {
+            sent += result.getResponseTime(operation).getTotalCount() + result.getErrors(operation) + result.getSkipped(operation);
+            assertEquals(0, result.getErrors(operation));
+        }
+        assertEquals(600, sent, 6);
+        assertTrue(result.getResponseTime(Operation.FETCH).getTotalCount() > result.getResponseTime(Operation.CREATE).getTotalCount());
+        assertTrue(Files.exists(output.resolve("test-accounts-200rps-fetch.hgrm")));
+        List<String> summary = Files.readAllLines(output.resolve("test-accounts-summary.csv"));
+        assertTrue(summary.get(0).startsWith("label,service,offered_rps,operation"));
+        assertTrue(summary.stream().anyMatch(line -> line.startsWith("test,accounts,200,fetch,")));
+    }
+
+    @Test
+    void stalledServiceShowsInEveryRequestScheduledDuringTheStall() throws Exception {
+        LoadOptions options = options("--rates=100", "--duration=2", "--mix=fetch:1");
+        StepResult result;
+        try (OpenLoopRunner runner = new OpenLoopRunner(options)) {
+            runner.preload();
+            stalled.set(true);
+            Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException ignored) {
+                }
+                stalled.set(false);
+            });
+            result = runner.run(100, options.duration(), null);
+        }
+
+        // a closed-loop client would record one slow sample; here each of the ~50 requests started during the stall
+        // waited for it, so well over 1% of the samples are slow
+        long slow = result.getResponseTime(Operation.FETCH).getCountBetweenValues(100_000_000L, Long.MAX_VALUE);
+        assertTrue(slow > 20, "slow samples: " + slow);
+    }
+
+    private LoadOptions options(String... extra) {
+        String[] args = new String[]{"--service=accounts", "--base-url=http://localhost:" + server.getAddress().getPort(),
+                "--preload=20", "--warmup=0", "--first-mobile=6000000000", "--label=test", "--output=" + output};
+        String[] all = new String[args.length + extra.length];
+        System.arraycopy(args, 0, all, 0, args.length);
+        System.arraycopy(extra, 0, all, args.length, extra.length);
+        return LoadOptions.parse(all);
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        while (stalled.get()) {
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.loansDto.loans.allocator;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*
+ * Hands out loan numbers that are unique by construction from loan_number_seq, so no two loans can be given the same
+ * number and creating one needs no existence check. The sequence moves in steps of BLOCK_SIZE and each step is a block
+ * of numbers served from memory, so only one loan in fifty costs a round trip. Numbers start at 100900000000, above
+ * the 100000000000..100899999999 range the old random generator drew from; numbers of a block left unused at shutdown
+ * are skipped, never reused.
+ */
+@Component
+public class LoanNumberAllocator {
+
+    // must match INCREMENT BY of loan_number_seq in schema.sql
+    static final int BLOCK_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+
+    public LoanNumberAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public String next() {
+        while (true) {
+            Block current = block;
+            long number = current.next.getAndIncrement();
+            if (number < current.end) {
+                return Long.toString(number);
+            }
+            refillLock.lock();
+            try {
+                if (block == current) {
+                    long start = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR loan_number_seq", Long.class);
+                    block = new Block(start, start + BLOCK_SIZE);
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+
+    private static final class Block {
+
+        final AtomicLong next;
+        final long end;
+
+        Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
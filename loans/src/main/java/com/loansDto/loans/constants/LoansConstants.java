@@ -17,5 +17,5 @@ public final class LoansConstants {
     public static final String MESSAGE_417_DELETE = "Delete operation failed. Please try again or contact Dev team";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
-
+    public static final String  APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 }
@@ -17,6 +17,7 @@ import jakarta.validation.constraints.Pattern;
 import lombok.AllArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -32,7 +33,8 @@ import org.springframework.web.bind.annotation.*;
         description = "CRUD REST APIs to CREATE, UPDATE, FETCH AND DELETE loan details"
 )
 @RestController
-@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+        LoansConstants.APPLICATION_SMILE_VALUE})
 @Validated
 public class LoansController {
 
@@ -85,6 +87,10 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified; the If-None-Match ETag is still current"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -97,9 +103,43 @@ public class LoansController {
     @GetMapping("/fetch")
     public ResponseEntity<LoansDto> fetchLoanDetails(@RequestParam
                                                      @Pattern(regexp = "(^$|[0-9]{10})", message = "Mobile number must be 10 digits")
-                                                     String mobileNumber) {
+                                                     String mobileNumber,
+                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+            String version = iLoansService.fetchLoanVersion(mobileNumber);
+            if (matchesETag(ifNoneMatch, version)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(version).build();
+            }
+        }
         LoansDto loansDto = iLoansService.fetchLoan(mobileNumber);
-        return ResponseEntity.status(HttpStatus.OK).body(loansDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK);
+        if (loansDto != null && loansDto.getVersion() != null) {
+            response.eTag(loansDto.getVersion());
+        }
+        return response.body(loansDto);
+    }
+
+    // If-None-Match lists one or more entity-tags, compared weakly, or * for any current representation
+    private static boolean matchesETag(String header, String version) {
+        for (String etag : header.split(",")) {
+            if ("*".equals(etag.trim()) || version.equals(parseETag(etag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // an entity-tag is an opaque value in double quotes, W/ in front when weak (RFC 9110 8.8.3); null for anything else
+    private static String parseETag(String etag) {
+        String candidate = etag.trim();
+        if (candidate.startsWith("W/")) {
+            candidate = candidate.substring(2);
+        }
+        if (candidate.length() < 2 || !candidate.startsWith("\"") || !candidate.endsWith("\"")) {
+            return null;
+        }
+        String opaque = candidate.substring(1, candidate.length() - 1);
+        return opaque.indexOf('"') < 0 ? opaque : null;
     }
 
     @Operation(
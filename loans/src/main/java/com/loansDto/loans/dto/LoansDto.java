@@ -1,5 +1,6 @@
 package com.loansDto.loans.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Pattern;
@@ -50,4 +51,11 @@ public class LoansDto {
     )
     private int outstandingAmount;
 
+    /*
+     * Id and version of the loan row this data was read from. Travels in the ETag header, never in the body.
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    private String version;
+
 }
@@ -4,9 +4,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.*;
 
 @Entity
+@Table(name = "loans", indexes = {
+        @Index(name = "ux_loans_mobile_number", columnList = "mobile_number", unique = true),
+        @Index(name = "ux_loans_loan_number", columnList = "loan_number", unique = true)
+})
 @Getter
 @Setter
 @ToString
@@ -1,10 +1,15 @@
 package com.loansDto.loans.exception;
 
 import com.loansDto.loans.dto.ErrorResponseDto;
+import com.loansDto.loans.metrics.Outcome;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.validation.ObjectError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -16,12 +21,26 @@ import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExcep
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 
 @ControllerAdvice
 public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
 
+    private final MeterRegistry meterRegistry;
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected ResponseEntity<Object> handleExceptionInternal(
+            Exception ex, Object body, HttpHeaders headers, HttpStatusCode statusCode, WebRequest request) {
+        recordFailure(ex, statusCode);
+        return super.handleExceptionInternal(ex, body, headers, statusCode, request);
+    }
+
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
@@ -33,6 +52,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
             String validationMsg = error.getDefaultMessage();
             validationErrors.put(fieldName, validationMsg);
         });
+        recordFailure(ex, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(validationErrors, HttpStatus.BAD_REQUEST);
     }
 
@@ -45,6 +65,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 exception.getMessage(),
                 LocalDateTime.now()
         );
+        recordFailure(exception, HttpStatus.INTERNAL_SERVER_ERROR);
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
@@ -57,6 +78,7 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 exception.getMessage(),
                 LocalDateTime.now()
         );
+        recordFailure(exception, HttpStatus.NOT_FOUND);
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.NOT_FOUND);
     }
 
@@ -69,7 +91,50 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
                 exception.getMessage(),
                 LocalDateTime.now()
         );
+        recordFailure(exception, HttpStatus.BAD_REQUEST);
         return new ResponseEntity<>(errorResponseDTO, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Creates insert without checking first, so a mobile number that is already registered surfaces here as a
+     * violation of ux_loans_mobile_number and is answered like the LoanAlreadyExistException the old check threw
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponseDto> handleDataIntegrityViolationException(DataIntegrityViolationException exception,
+                                                                                 WebRequest webRequest){
+        String cause = String.valueOf(exception.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (!cause.contains("ux_loans_mobile_number")) {
+            return handleGlobalException(exception, webRequest);
+        }
+        String mobileNumber = webRequest.getParameter("mobileNumber");
+        return handleLoanAlreadyExistsException(new LoanAlreadyExistException("Loan already registered with given mobileNumber"
+                + (mobileNumber == null ? "" : " " + mobileNumber)), webRequest);
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailureException(ObjectOptimisticLockingFailureException exception,
+                                                                                    WebRequest webRequest){
+        ErrorResponseDto errorResponseDTO = new ErrorResponseDto(
+                webRequest.getDescription(false),
+                HttpStatus.CONFLICT,
+                "Loan was modified by a concurrent request. Please fetch it again and retry",
+                LocalDateTime.now()
+        );
+        recordFailure(exception, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(errorResponseDTO, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Counts every failed request in api.failures by exception, status and the outcome tag shared with the latency timers
+     */
+    private void recordFailure(Exception exception, HttpStatusCode status) {
+        Counter.builder("api.failures")
+                .description("Requests answered with an error response")
+                .tag("exception", exception.getClass().getSimpleName())
+                .tag("status", Integer.toString(status.value()))
+                .tag("outcome", Outcome.of(exception).getValue())
+                .register(meterRegistry)
+                .increment();
+    }
+
 }
@@ -0,0 +1,270 @@
+package com.loansDto.loans.filter;
+
+import com.loansDto.loans.repository.LoansRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/*
+ * Cuckoo filter over the mobile numbers of the loans table, so lookups of numbers that are not registered are
+ * answered without a query. Built from the table once the application is ready and kept current after every commit
+ * that adds or removes a loan: a created number is found once its insert has committed, and a deleted one is only
+ * reported absent once its delete has committed. Only changes made through this instance are seen.
+ *
+ * Until it is built, while it is rebuilt and once it is full, every lookup goes to the database. A full filter is
+ * rebuilt in the background with room for twice the rows. /actuator/mobilefilter shows its size, memory and the
+ * expected and observed false-positive rates; POST /actuator/mobilefilter rebuilds it.
+ */
+@Component
+@Endpoint(id = "mobilefilter")
+public class MobileNumberFilter {
+
+    private final LoansRepository loansRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long expectedInsertions;
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("mobile-filter-rebuild").daemon().factory());
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // changes hold the read side and publishing a rebuilt filter the write side, so no change falls in between
+    private final ReentrantReadWriteLock publishLock = new ReentrantReadWriteLock();
+    private final Queue<String> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Counter definiteMisses;
+    private final Counter possibleHits;
+    private final Counter falsePositives;
+    private volatile CuckooFilter filter;
+    private volatile boolean active;
+    private volatile boolean rebuilding;
+
+    public MobileNumberFilter(LoansRepository loansRepository, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${loans.mobile-filter.expected-insertions:1000000}") long expectedInsertions) {
+        this.loansRepository = loansRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.expectedInsertions = expectedInsertions;
+        this.definiteMisses = Counter.builder("mobile.filter.lookups").tag("result", "definite-miss")
+                .description("Mobile number lookups answered by the filter").register(meterRegistry);
+        this.possibleHits = Counter.builder("mobile.filter.lookups").tag("result", "possible-hit")
+                .description("Mobile number lookups answered by the filter").register(meterRegistry);
+        this.falsePositives = Counter.builder("mobile.filter.false-positives")
+                .description("Lookups the filter let through that found nothing").register(meterRegistry);
+        Gauge.builder("mobile.filter.entries", this, mobileNumberFilter -> mobileNumberFilter.currentFilter().size())
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.memory", this, mobileNumberFilter -> mobileNumberFilter.currentFilter().memoryBytes())
+                .baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("mobile.filter.load", this, mobileNumberFilter -> mobileNumberFilter.currentFilter().loadFactor())
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return false only if no loan has this mobile number
+     */
+    public boolean mightContain(String mobileNumber) {
+        if (!active || mobileNumber == null) {
+            return true;
+        }
+        boolean possible = filter.mightContain(hash(mobileNumber));
+        (possible ? possibleHits : definiteMisses).increment();
+        return possible;
+    }
+
+    /**
+     * @param query - the lookup to run unless the filter rules the mobile number out
+     */
+    public <T> Optional<T> find(String mobileNumber, Function<String, Optional<T>> query) {
+        if (!mightContain(mobileNumber)) {
+            return Optional.empty();
+        }
+        Optional<T> result = query.apply(mobileNumber);
+        if (result.isEmpty()) {
+            recordFalsePositive();
+        }
+        return result;
+    }
+
+    public void recordFalsePositive() {
+        if (active) {
+            falsePositives.increment();
+        }
+    }
+
+    /**
+     * @param mobileNumber - mobile number of a loan being inserted; added once the insert commits
+     */
+    public void added(String mobileNumber) {
+        if (mobileNumber != null) {
+            afterCommit(() -> add(mobileNumber));
+        }
+    }
+
+    /**
+     * @param mobileNumber - mobile number of a loan this transaction deleted; it must really have existed
+     */
+    public void removed(String mobileNumber) {
+        if (mobileNumber != null) {
+            afterCommit(() -> remove(mobileNumber));
+        }
+    }
+
+    @ReadOperation
+    public FilterReport report() {
+        CuckooFilter current = currentFilter();
+        double misses = definiteMisses.count();
+        double passedAbsent = falsePositives.count();
+        return new FilterReport(active, current.size(), current.slots(), current.memoryBytes(), current.loadFactor(),
+                current.expectedFalsePositiveRate(), (long) misses, (long) possibleHits.count(), (long) passedAbsent,
+                misses + passedAbsent == 0 ? 0 : passedAbsent / (misses + passedAbsent));
+    }
+
+    /**
+     * Reloads the filter from the table, sized for twice the current rows or the configured expected insertions.
+     */
+    @WriteOperation
+    public FilterReport rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return report();
+        }
+        try {
+            publishLock.writeLock().lock();
+            try {
+                rebuilding = true;
+                active = false;
+                pendingAdds.clear();
+            } finally {
+                publishLock.writeLock().unlock();
+            }
+
+            CuckooFilter next = null;
+            AtomicBoolean complete = new AtomicBoolean(true);
+            try {
+                CuckooFilter loading = new CuckooFilter(Math.max(expectedInsertions, loansRepository.count() * 2));
+                readOnlyTransaction.executeWithoutResult(status -> {
+                    try (Stream<String> mobileNumbers = loansRepository.streamAllMobileNumbers()) {
+                        mobileNumbers.forEach(mobileNumber -> {
+                            if (!loading.add(hash(mobileNumber))) {
+                                complete.set(false);
+                            }
+                        });
+                    }
+                });
+                next = loading;
+            } finally {
+                publishLock.writeLock().lock();
+                try {
+                    // without a new filter the old one stays inactive and every lookup keeps going to the database
+                    if (next != null) {
+                        for (String mobileNumber = pendingAdds.poll(); mobileNumber != null; mobileNumber = pendingAdds.poll()) {
+                            if (!next.add(hash(mobileNumber))) {
+                                complete.set(false);
+                            }
+                        }
+                        filter = next;
+                        active = complete.get();
+                    }
+                    pendingAdds.clear();
+                    rebuilding = false;
+                } finally {
+                    publishLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+        return report();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        rebuild();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void add(String mobileNumber) {
+        publishLock.readLock().lock();
+        try {
+            if (rebuilding) {
+                pendingAdds.add(mobileNumber);
+            } else if (filter != null && !filter.add(hash(mobileNumber))) {
+                active = false;
+                rebuildExecutor.execute(this::rebuild);
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    // while rebuilding the number may already be in the new filter or not; leaving it only costs a false positive
+    private void remove(String mobileNumber) {
+        publishLock.readLock().lock();
+        try {
+            if (!rebuilding && filter != null) {
+                filter.remove(hash(mobileNumber));
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    private CuckooFilter currentFilter() {
+        CuckooFilter current = filter;
+        return current != null ? current : new CuckooFilter(0);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    // FNV-1a over the digits, then the SplitMix64 finalizer so the low bits used for the bucket index are well mixed
+    static long hash(String mobileNumber) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < mobileNumber.length(); i++) {
+            hash ^= mobileNumber.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+
+    public record FilterReport(boolean active, long entries, long slots, long memoryBytes, double loadFactor,
+                               double expectedFalsePositiveRate, long definiteMisses, long possibleHits,
+                               long falsePositives, double observedFalsePositiveRate) {
+    }
+}
@@ -0,0 +1,247 @@
+package com.loansDto.loans.index;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.locks.StampedLock;
+
+/*
+ * Open-addressing long -> long hash map stored in a direct buffer: 16 bytes per slot (key, value), linear probing,
+ * backward-shift deletion so there are no tombstones, doubled when it passes 70% load. Nothing is boxed and the heap
+ * only holds the buffer object, so millions of entries add no GC work. Keys must not be negative.
+ *
+ * Lookups read optimistically and only lock if a writer changed the table meanwhile; writers are serialized.
+ *
+ * The table is a power of two of at most 2^26 slots (1 GiB), so the map holds up to about 47M entries. Doubling keeps
+ * the old table until the new one is filled, so growing to N slots needs 24 * N bytes of direct memory at once: size
+ * -XX:MaxDirectMemorySize (by default the heap size) to 1.5 times the largest table expected. A put the map cannot
+ * grow for, whether at the cap or out of direct memory, is refused instead of thrown.
+ */
+public class OffHeapLongLongMap {
+
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+    private static final int MIN_SLOTS = 16;
+    // the largest power of two whose table still fits one direct buffer
+    private static final int MAX_SLOTS = 1 << 26;
+
+    private final StampedLock lock = new StampedLock();
+    private final int maxSlots;
+    private volatile Table table;
+    private int size;
+
+    /**
+     * @param expectedSize - entries to size the first table for; the table grows past it as needed
+     */
+    public OffHeapLongLongMap(int expectedSize) {
+        this(expectedSize, MAX_SLOTS);
+    }
+
+    /**
+     * @param maxSlots - power of two the table may grow to
+     */
+    OffHeapLongLongMap(int expectedSize, int maxSlots) {
+        this.maxSlots = maxSlots;
+        Table first = Table.allocate(slotsFor(expectedSize, maxSlots));
+        // without the memory for the expected size, start small and let the puts find out how far it grows
+        this.table = first != null ? first : new Table(MIN_SLOTS);
+    }
+
+    /**
+     * @return the value stored for the key, or NO_VALUE
+     */
+    public long get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        long value = table.get(key);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                value = table.get(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return false if the key is new and the map is full, in which case nothing changed
+     */
+    public boolean put(long key, long value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Negative key " + key);
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > table.slots * MAX_LOAD && table.get(key) == NO_VALUE && !grow()) {
+                return false;
+            }
+            if (table.put(key, value)) {
+                size++;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * @return false if the key was absent or mapped to another value, in which case nothing changed
+     */
+    public boolean remove(long key, long expectedValue) {
+        long stamp = lock.writeLock();
+        try {
+            if (table.remove(key, expectedValue)) {
+                size--;
+                return true;
+            }
+            return false;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public long memoryBytes() {
+        return (long) table.slots * ENTRY_BYTES;
+    }
+
+    // returns false if the table is at its cap or there is no direct memory for a larger one
+    private boolean grow() {
+        Table current = table;
+        if (current.slots >= maxSlots) {
+            return false;
+        }
+        Table larger = Table.allocate(current.slots * 2);
+        if (larger == null) {
+            return false;
+        }
+        for (int slot = 0; slot < current.slots; slot++) {
+            long storedKey = current.storedKey(slot);
+            if (storedKey != 0) {
+                larger.put(storedKey - 1, current.value(slot));
+            }
+        }
+        table = larger;
+        return true;
+    }
+
+    private static int slotsFor(int expectedSize, int maxSlots) {
+        long needed = Math.max(MIN_SLOTS, (long) Math.ceil(expectedSize / MAX_LOAD));
+        return (int) Math.min(maxSlots, Long.highestOneBit(needed - 1) << 1);
+    }
+
+    // keys are stored plus one, so the zeroed memory of a new direct buffer reads as all slots empty
+    private static final class Table {
+
+        private final ByteBuffer buffer;
+        private final int slots;
+        private final int mask;
+
+        Table(int slots) {
+            this.buffer = ByteBuffer.allocateDirect(slots * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+            this.slots = slots;
+            this.mask = slots - 1;
+        }
+
+        // returns null when the direct memory limit is reached, which is thrown before anything is allocated
+        static Table allocate(int slots) {
+            try {
+                return new Table(slots);
+            } catch (OutOfMemoryError e) {
+                return null;
+            }
+        }
+
+        long get(long key) {
+            long wanted = key + 1;
+            for (int slot = home(key); ; slot = (slot + 1) & mask) {
+                long storedKey = storedKey(slot);
+                if (storedKey == wanted) {
+                    return value(slot);
+                }
+                if (storedKey == 0) {
+                    return NO_VALUE;
+                }
+            }
+        }
+
+        // returns true if the key was new
+        boolean put(long key, long value) {
+            long wanted = key + 1;
+            for (int slot = home(key); ; slot = (slot + 1) & mask) {
+                long storedKey = storedKey(slot);
+                if (storedKey == wanted || storedKey == 0) {
+                    buffer.putLong(slot * ENTRY_BYTES + Long.BYTES, value);
+                    buffer.putLong(slot * ENTRY_BYTES, wanted);
+                    return storedKey == 0;
+                }
+            }
+        }
+
+        boolean remove(long key, long expectedValue) {
+            long wanted = key + 1;
+            for (int slot = home(key); ; slot = (slot + 1) & mask) {
+                long storedKey = storedKey(slot);
+                if (storedKey == 0) {
+                    return false;
+                }
+                if (storedKey == wanted) {
+                    if (value(slot) != expectedValue) {
+                        return false;
+                    }
+                    shiftBack(slot);
+                    return true;
+                }
+            }
+        }
+
+        // closes the hole by moving back every later entry of the probe run that may sit in it
+        private void shiftBack(int hole) {
+            for (int slot = (hole + 1) & mask; ; slot = (slot + 1) & mask) {
+                long storedKey = storedKey(slot);
+                if (storedKey == 0) {
+                    break;
+                }
+                int home = home(storedKey - 1);
+                boolean reachableFromHole = hole <= slot
+                        ? home <= hole || home > slot
+                        : home <= hole && home > slot;
+                if (reachableFromHole) {
+                    buffer.putLong(hole * ENTRY_BYTES + Long.BYTES, value(slot));
+                    buffer.putLong(hole * ENTRY_BYTES, storedKey);
+                    hole = slot;
+                }
+            }
+            buffer.putLong(hole * ENTRY_BYTES, 0);
+            buffer.putLong(hole * ENTRY_BYTES + Long.BYTES, 0);
+        }
+
+        long storedKey(int slot) {
+            return buffer.getLong(slot * ENTRY_BYTES);
+        }
+
+        long value(int slot) {
+            return buffer.getLong(slot * ENTRY_BYTES + Long.BYTES);
+        }
+
+        // the MurmurHash3 finalizer; mobile numbers are dense decimal ranges that would cluster on their low bits
+        private int home(long key) {
+            key ^= key >>> 33;
+            key *= 0xff51afd7ed558ccdL;
+            key ^= key >>> 33;
+            key *= 0xc4ceb93fe53a87ebL;
+            key ^= key >>> 33;
+            return (int) key & mask;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.loansDto.loans.mapper;
 
 import com.loansDto.loans.dto.LoansDto;
 import com.loansDto.loans.entity.Loans;
+import com.loansDto.loans.projection.LoanVersionView;
 
 public class LoansMapper {
 
@@ -12,6 +13,7 @@ public class LoansMapper {
         loansDto.setTotalLoan(loans.getTotalLoan());
         loansDto.setAmountPaid(loans.getAmountPaid());
         loansDto.setOutstandingAmount(loans.getOutstandingAmount());
+        loansDto.setVersion(toVersion(loans.getLoanId(), loans.getVersion()));
         return loansDto;
     }
 
@@ -25,4 +27,12 @@ public class LoansMapper {
         return loans;
     }
 
+    public static String toVersion(LoanVersionView view) {
+        return toVersion(view.loanId(), view.version());
+    }
+
+    // the id keeps a loan created again for the same mobile number from matching the versions of the old one
+    private static String toVersion(Long loanId, Long version) {
+        return loanId + "." + version;
+    }
 }
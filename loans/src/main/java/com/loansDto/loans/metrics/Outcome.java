@@ -0,0 +1,54 @@
+package com.loansDto.loans.metrics;
+
+import com.loansDto.loans.exception.LoanAlreadyExistException;
+import com.loansDto.loans.exception.ResourceNotFoundException;
+import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.validation.BindException;
+import org.springframework.validation.method.MethodValidationException;
+import org.springframework.web.method.annotation.HandlerMethodValidationException;
+
+/*
+ * Outcome tag shared by service.invocations, spring.data.repository.invocations and api.failures, so a latency
+ * percentile can be split into the calls that succeeded and the ones that ended in each kind of client-visible failure.
+ */
+public enum Outcome {
+
+    SUCCESS("success"),
+    NOT_FOUND("not-found"),
+    CONFLICT("conflict"),
+    VALIDATION_ERROR("validation-error"),
+    ERROR("error");
+
+    private final String value;
+
+    Outcome(String value) {
+        this.value = value;
+    }
+
+    public static Outcome of(Throwable throwable) {
+        if (throwable == null) {
+            return SUCCESS;
+        }
+        if (throwable instanceof ResourceNotFoundException) {
+            return NOT_FOUND;
+        }
+        if (throwable instanceof LoanAlreadyExistException
+                || throwable instanceof OptimisticLockingFailureException
+                || throwable instanceof DataIntegrityViolationException) {
+            return CONFLICT;
+        }
+        if (throwable instanceof BindException
+                || throwable instanceof ConstraintViolationException
+                || throwable instanceof MethodValidationException
+                || throwable instanceof HandlerMethodValidationException) {
+            return VALIDATION_ERROR;
+        }
+        return ERROR;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,49 @@
+package com.loansDto.loans.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/*
+ * Times every call through the service interfaces into service.invocations (percentile histogram configured in
+ * application.yml), tagged by service, method, outcome and exception. Ordered outside the transaction and cache
+ * advice, so commit time and cache hits are part of the recorded latency and a failure at commit gets its outcome.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String METRIC_NAME = "service.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(* com.loansDto.loans.service.*.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(METRIC_NAME)
+                    .description("Latency of service method calls")
+                    .tag("service", joinPoint.getTarget().getClass().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("outcome", Outcome.of(failure).getValue())
+                    .tag("exception", failure == null ? "none" : failure.getClass().getSimpleName())
+                    .register(meterRegistry));
+        }
+    }
+}
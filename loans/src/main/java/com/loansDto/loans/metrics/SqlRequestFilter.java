@@ -0,0 +1,36 @@
+package com.loansDto.loans.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/*
+ * Scopes the SELECT counting of SqlStatementMonitor to one request, reported under its method and route pattern.
+ */
+@Component
+public class SqlRequestFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMonitor sqlStatementMonitor;
+
+    public SqlRequestFilter(SqlStatementMonitor sqlStatementMonitor) {
+        this.sqlStatementMonitor = sqlStatementMonitor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        sqlStatementMonitor.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sqlStatementMonitor.endRequest(request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI()));
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.loansDto.loans.projection;
+
+/*
+ * Just enough of a loan to build the ETag, so a conditional fetch that ends in 304 reads the version column instead
+ * of the full row.
+ */
+public record LoanVersionView(Long loanId, String mobileNumber, Long version) {
+}
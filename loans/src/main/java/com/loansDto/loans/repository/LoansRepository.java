@@ -1,10 +1,21 @@
 package com.loansDto.loans.repository;
 
 import com.loansDto.loans.entity.Loans;
+import com.loansDto.loans.projection.LoanVersionView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface LoansRepository extends JpaRepository<Loans, Long> {
@@ -13,4 +24,31 @@ public interface LoansRepository extends JpaRepository<Loans, Long> {
 
     Optional<Loans> findByLoanNumber(String loanNumber);
 
+    @Query("SELECT new com.loansDto.loans.projection.LoanVersionView(l.loanId, l.mobileNumber, l.version) " +
+            "FROM Loans l WHERE l.mobileNumber = :mobileNumber")
+    Optional<LoanVersionView> findLoanVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("SELECT new com.loansDto.loans.projection.LoanVersionView(l.loanId, l.mobileNumber, l.version) " +
+            "FROM Loans l WHERE l.loanId = :loanId")
+    Optional<LoanVersionView> findLoanVersionByLoanId(@Param("loanId") Long loanId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Loans l WHERE l.loanId = :loanId")
+    int deleteByLoanId(@Param("loanId") Long loanId);
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l.mobileNumber FROM Loans l")
+    Stream<String> streamAllMobileNumbers();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT l.mobileNumber, l.loanId FROM Loans l")
+    Stream<Object[]> streamAllMobileNumberIds();
+
 }
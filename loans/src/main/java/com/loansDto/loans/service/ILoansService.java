@@ -15,6 +15,12 @@ public interface ILoansService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return the ETag version fetchLoan would report for this mobileNumber, read without loading the loan
+     */
+    String fetchLoanVersion(String mobileNumber);
+
     /**
      * @param loansDto - LoansDto Object
      * @return boolean indicating if the update of card details is successful or not
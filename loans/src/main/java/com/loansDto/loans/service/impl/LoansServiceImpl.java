@@ -1,35 +1,41 @@
 package com.loansDto.loans.service.impl;
 
+import com.loansDto.loans.allocator.LoanNumberAllocator;
 import com.loansDto.loans.constants.LoansConstants;
 import com.loansDto.loans.dto.LoansDto;
 import com.loansDto.loans.entity.Loans;
-import com.loansDto.loans.exception.LoanAlreadyExistException;
 import com.loansDto.loans.exception.ResourceNotFoundException;
+import com.loansDto.loans.filter.MobileNumberFilter;
+import com.loansDto.loans.index.MobileNumberIndex;
 import com.loansDto.loans.mapper.LoansMapper;
+import com.loansDto.loans.projection.LoanVersionView;
 import com.loansDto.loans.repository.LoansRepository;
 import com.loansDto.loans.service.ILoansService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-import java.util.Random;
+import java.util.Objects;
 
 @Service
 @AllArgsConstructor
 public class LoansServiceImpl implements ILoansService {
 
     private LoansRepository loansRepository;
+    private MobileNumberFilter mobileNumberFilter;
+    private MobileNumberIndex mobileNumberIndex;
+    private LoanNumberAllocator loanNumberAllocator;
 
     /**
+     * A single insert: a mobile number that already has a loan fails ux_loans_mobile_number, which
+     * GlobalExceptionHandler answers as LoanAlreadyExistException, so concurrent duplicates cannot both succeed.
+     *
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans = loansRepository.findByMobileNumber(mobileNumber);
-        if (optionalLoans.isPresent()) {
-            throw new LoanAlreadyExistException("Loan already registered with given mobileNumber " + mobileNumber);
-        }
-        loansRepository.save(createNewLoan(mobileNumber));
+        Loans savedLoan = loansRepository.save(createNewLoan(mobileNumber));
+        mobileNumberFilter.added(mobileNumber);
+        mobileNumberIndex.added(mobileNumber, savedLoan.getLoanId());
     }
 
     /**
@@ -38,8 +44,7 @@ public class LoansServiceImpl implements ILoansService {
      */
     private Loans createNewLoan(String mobileNumber) {
         Loans newLoan = new Loans();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(loanNumberAllocator.next());
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoansConstants.HOME_LOAN);
         newLoan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
@@ -54,12 +59,26 @@ public class LoansServiceImpl implements ILoansService {
      */
     @Override
     public LoansDto fetchLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Loans loans = mobileNumberIndex.find(mobileNumber, loansRepository::findById, Loans::getMobileNumber,
+                number -> mobileNumberFilter.find(number, loansRepository::findByMobileNumber)).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
         return LoansMapper.mapToLoansDto(loans, new LoansDto());
     }
 
+    /**
+     * @param mobileNumber - Input mobile Number
+     * @return the ETag version fetchLoan would report for this mobileNumber, read without loading the loan
+     */
+    @Override
+    public String fetchLoanVersion(String mobileNumber) {
+        LoanVersionView view = mobileNumberIndex.find(mobileNumber, loansRepository::findLoanVersionByLoanId, LoanVersionView::mobileNumber,
+                number -> mobileNumberFilter.find(number, loansRepository::findLoanVersionByMobileNumber)).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
+        );
+        return LoansMapper.toVersion(view);
+    }
+
     /**
      * @param loansDto - LoansDto Object
      * @return boolean indicating if the update of loan details is successful or not
@@ -68,8 +87,17 @@ public class LoansServiceImpl implements ILoansService {
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        String previousMobileNumber = loans.getMobileNumber();
         LoansMapper.mapToLoans(loansDto, loans);
         loansRepository.save(loans);
+        // save() checks the @Version read above, so only this update moved the previous number off the loan and it
+        // leaves the filter exactly once
+        if (!Objects.equals(previousMobileNumber, loans.getMobileNumber())) {
+            mobileNumberFilter.added(loans.getMobileNumber());
+            mobileNumberFilter.removed(previousMobileNumber);
+            mobileNumberIndex.removed(previousMobileNumber, loans.getLoanId());
+            mobileNumberIndex.added(loans.getMobileNumber(), loans.getLoanId());
+        }
         return true;
     }
 
@@ -79,10 +107,14 @@ public class LoansServiceImpl implements ILoansService {
      */
     @Override
     public boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Loans loans = mobileNumberIndex.find(mobileNumber, loansRepository::findById, Loans::getMobileNumber,
+                number -> mobileNumberFilter.find(number, loansRepository::findByMobileNumber)).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
-        loansRepository.deleteById(loans.getLoanId());
+        if (loansRepository.deleteByLoanId(loans.getLoanId()) == 1) {
+            mobileNumberFilter.removed(loans.getMobileNumber());
+            mobileNumberIndex.removed(loans.getMobileNumber(), loans.getLoanId());
+        }
         return true;
     }
 
@@ -10,5 +10,20 @@ CREATE TABLE IF NOT EXISTS `loans` (
   `created_by` varchar(20) NOT NULL,
   `updated_at` date DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint DEFAULT 0 NOT NULL,
   PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+);
+
+-- Optimistic locking version (BaseEntity.version), also the ETag of /api/fetch; existing rows start at 0.
+ALTER TABLE `loans` ADD COLUMN IF NOT EXISTS `version` bigint DEFAULT 0 NOT NULL;
+
+-- Loan numbers are allocated in blocks of 50 (see LoanNumberAllocator). Numbering starts above the
+-- 100000000000..100899999999 range the old random generator drew from, so it cannot hit legacy rows.
+CREATE SEQUENCE IF NOT EXISTS loan_number_seq START WITH 100900000000 INCREMENT BY 50;
+
+-- Duplicate mobile or loan numbers left behind by the old check-then-insert create path make these statements fail,
+-- and startup with them: which loan is the real one is for an operator to decide, not a startup script. List them with
+-- SELECT mobile_number, COUNT(*) FROM loans GROUP BY mobile_number HAVING COUNT(*) > 1 (and the same for loan_number)
+CREATE UNIQUE INDEX IF NOT EXISTS ux_loans_mobile_number ON `loans` (`mobile_number`);
+
+CREATE UNIQUE INDEX IF NOT EXISTS ux_loans_loan_number ON `loans` (`loan_number`);
@@ -0,0 +1,80 @@
+package com.loansDto.loans.allocator;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoanNumberAllocatorTest {
+
+    private static final int THREADS = 8;
+    private static final int NUMBERS_PER_THREAD = 500;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql")).execute(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    @Test
+    public void testConcurrentAllocations_UniqueTwelveDigitNumbers() throws Exception {
+        LoanNumberAllocator allocator = new LoanNumberAllocator(jdbcTemplate);
+
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    List<String> numbers = new ArrayList<>();
+                    for (int j = 0; j < NUMBERS_PER_THREAD; j++) {
+                        numbers.add(allocator.next());
+                    }
+                    return numbers;
+                }));
+            }
+        }
+
+        Set<String> numbers = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get());
+        }
+        assertEquals(THREADS * NUMBERS_PER_THREAD, numbers.size());
+        for (String number : numbers) {
+            assertTrue(number.matches("[0-9]{12}"));
+            assertTrue(Long.parseLong(number) >= 100900000000L);
+        }
+    }
+
+    @Test
+    public void testNext_DrawsOneSequenceValuePerBlock() {
+        LoanNumberAllocator allocator = new LoanNumberAllocator(jdbcTemplate);
+
+        for (int i = 0; i < LoanNumberAllocator.BLOCK_SIZE; i++) {
+            assertEquals(Long.toString(100900000000L + i), allocator.next());
+        }
+        assertEquals(100900000000L + LoanNumberAllocator.BLOCK_SIZE, Long.parseLong(allocator.next()));
+        assertEquals(100900000000L + 2 * LoanNumberAllocator.BLOCK_SIZE,
+                jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR loan_number_seq", Long.class));
+    }
+}
@@ -0,0 +1,66 @@
+package com.loansDto.loans.benchmark;
+
+import com.loansDto.loans.dto.LoansDto;
+import com.loansDto.loans.entity.Loans;
+import com.loansDto.loans.mapper.LoansMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/*
+ * Baseline cost of the per-response work outside the database: LoansMapper in both directions and Jackson (configured
+ * like Spring Boot's ObjectMapper) turning LoansDto into JSON and back. Run it with the GC profiler to see bytes
+ * allocated per operation next to the throughput.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="DtoMappingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DtoMappingBenchmark {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private Loans loans;
+    private LoansDto loansDto;
+    private byte[] loansJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        loansDto = new LoansDto();
+        loansDto.setMobileNumber("1234567890");
+        loansDto.setLoanNumber("548732457654");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100000);
+        loansDto.setAmountPaid(1000);
+        loansDto.setOutstandingAmount(99000);
+        loans = LoansMapper.mapToLoans(loansDto, new Loans());
+        loansJson = objectMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public LoansDto mapToLoansDto() {
+        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public Loans mapToLoans() {
+        return LoansMapper.mapToLoans(loansDto, new Loans());
+    }
+
+    @Benchmark
+    public byte[] serializeLoansDto() throws IOException {
+        return objectMapper.writeValueAsBytes(loansDto);
+    }
+
+    @Benchmark
+    public LoansDto deserializeLoansDto() throws IOException {
+        return objectMapper.readValue(loansJson, LoansDto.class);
+    }
+}
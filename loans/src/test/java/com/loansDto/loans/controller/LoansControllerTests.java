@@ -71,7 +71,7 @@ public class LoansControllerTests {
 
         when(loansService.fetchLoan(anyString())).thenReturn(loansDto);
 
-        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber);
+        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());
@@ -80,6 +80,41 @@ public class LoansControllerTests {
         verify(loansService, times(1)).fetchLoan(mobileNumber);
     }
 
+    @Test
+    @Operation(summary = "Fetch unchanged loan details", description = "Endpoint to answer a conditional fetch without the details.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "304", description = "Not modified")
+    })
+    public void testFetchLoanDetails_NotModified() {
+        String mobileNumber = "1234567890";
+        when(loansService.fetchLoanVersion(mobileNumber)).thenReturn("5.2");
+
+        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber, "\"5.1\", \"5.2\"");
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"5.2\"", response.getHeaders().getETag());
+        assertNull(response.getBody());
+        verify(loansService, never()).fetchLoan(anyString());
+    }
+
+    @Test
+    @Operation(summary = "Fetch loan details with a malformed ETag", description = "Endpoint to ignore an If-None-Match value that is not an entity tag.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Loan details fetched successfully", content = @Content(schema = @Schema(implementation = LoansDto.class)))
+    })
+    public void testFetchLoanDetails_UnquotedETagDoesNotMatch() {
+        String mobileNumber = "1234567890";
+        LoansDto loansDto = new LoansDto();
+        loansDto.setVersion("5.2");
+        when(loansService.fetchLoanVersion(mobileNumber)).thenReturn("5.2");
+        when(loansService.fetchLoan(mobileNumber)).thenReturn(loansDto);
+
+        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber, "5.2");
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(loansDto, response.getBody());
+    }
+
     @Test
     @Operation(summary = "Update loan details", description = "Endpoint to update loan details.")
     @ApiResponses(value = {
@@ -135,7 +170,7 @@ public class LoansControllerTests {
 
         when(loansService.fetchLoan(anyString())).thenReturn(null); // Simulating that no loan details were found
 
-        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber);
+        ResponseEntity<LoansDto> response = loansController.fetchLoanDetails(mobileNumber, null);
 
         assertNotNull(response);
         assertEquals(HttpStatus.OK, response.getStatusCode());